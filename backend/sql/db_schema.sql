@@ -923,6 +923,13 @@ ALTER TABLE ONLY public.admin
 CREATE INDEX fki_book_image_book_id_fkey ON public.book_image USING btree (book_id);
 
 
+--
+-- Name: book_purchase_price_book_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX book_purchase_price_book_id_idx ON public.book USING btree (purchase_price, book_id);
+
+
 --
 -- TOC entry 4838 (class 2606 OID 16446)
 -- Name: book book_author_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
@@ -1067,6 +1074,176 @@ ALTER TABLE ONLY public.review
     ADD CONSTRAINT review_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.client(client_id);
 
 
+--
+-- Name: pg_trgm; Type: EXTENSION; Schema: -; Owner: -
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+
+--
+-- Name: book_search; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.book_search (
+    book_id integer NOT NULL,
+    document text NOT NULL,
+    document_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple'::regconfig, document)) STORED,
+    updated_at timestamp(6) without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.book_search OWNER TO postgres;
+
+--
+-- Name: book_search book_search_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.book_search
+    ADD CONSTRAINT book_search_pkey PRIMARY KEY (book_id);
+
+
+--
+-- Name: book_search book_search_book_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.book_search
+    ADD CONSTRAINT book_search_book_id_fkey FOREIGN KEY (book_id) REFERENCES public.book(book_id) ON DELETE CASCADE;
+
+
+--
+-- Name: book_search_document_tsv_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX book_search_document_tsv_idx ON public.book_search USING gin (document_tsv);
+
+
+--
+-- Name: book_search_document_trgm_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX book_search_document_trgm_idx ON public.book_search USING gin (document public.gin_trgm_ops);
+
+
+--
+-- Name: book_rating_summary; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.book_rating_summary (
+    book_id integer NOT NULL,
+    review_count integer DEFAULT 0 NOT NULL,
+    rating_sum integer DEFAULT 0 NOT NULL,
+    rating_1 integer DEFAULT 0 NOT NULL,
+    rating_2 integer DEFAULT 0 NOT NULL,
+    rating_3 integer DEFAULT 0 NOT NULL,
+    rating_4 integer DEFAULT 0 NOT NULL,
+    rating_5 integer DEFAULT 0 NOT NULL,
+    updated_at timestamp(6) without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.book_rating_summary OWNER TO postgres;
+
+--
+-- Name: book_rating_summary book_rating_summary_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.book_rating_summary
+    ADD CONSTRAINT book_rating_summary_pkey PRIMARY KEY (book_id);
+
+
+--
+-- Name: book_rating_summary book_rating_summary_book_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.book_rating_summary
+    ADD CONSTRAINT book_rating_summary_book_id_fkey FOREIGN KEY (book_id) REFERENCES public.book(book_id) ON DELETE CASCADE;
+
+
+--
+-- Name: inventory_movement; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.inventory_movement (
+    movement_id bigint NOT NULL,
+    book_id integer NOT NULL,
+    delta integer NOT NULL,
+    reason character varying(32) NOT NULL,
+    order_id integer,
+    order_item_id integer,
+    created_at timestamp(6) without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.inventory_movement OWNER TO postgres;
+
+--
+-- Name: inventory_movement_movement_id_seq; Type: SEQUENCE; Schema: public; Owner: postgres
+--
+
+ALTER TABLE public.inventory_movement ALTER COLUMN movement_id ADD GENERATED ALWAYS AS IDENTITY (
+    SEQUENCE NAME public.inventory_movement_movement_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1
+);
+
+
+--
+-- Name: inventory_movement inventory_movement_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.inventory_movement
+    ADD CONSTRAINT inventory_movement_pkey PRIMARY KEY (movement_id);
+
+
+--
+-- Name: inventory_movement_book_id_movement_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX inventory_movement_book_id_movement_id_idx ON public.inventory_movement USING btree (book_id, movement_id);
+
+
+--
+-- Name: inventory_movement inventory_movement_book_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.inventory_movement
+    ADD CONSTRAINT inventory_movement_book_id_fkey FOREIGN KEY (book_id) REFERENCES public.book(book_id) ON DELETE CASCADE;
+
+
+--
+-- Name: inventory_snapshot; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.inventory_snapshot (
+    book_id integer NOT NULL,
+    quantity integer NOT NULL,
+    last_movement_id bigint DEFAULT 0 NOT NULL,
+    taken_at timestamp(6) without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.inventory_snapshot OWNER TO postgres;
+
+--
+-- Name: inventory_snapshot inventory_snapshot_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.inventory_snapshot
+    ADD CONSTRAINT inventory_snapshot_pkey PRIMARY KEY (book_id);
+
+
+--
+-- Name: inventory_snapshot inventory_snapshot_book_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.inventory_snapshot
+    ADD CONSTRAINT inventory_snapshot_book_id_fkey FOREIGN KEY (book_id) REFERENCES public.book(book_id) ON DELETE CASCADE;
+
+
 -- Completed on 2026-02-26 19:58:36
 
 --
@@ -0,0 +1,254 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.enums.ItemType;
+import com.example.bookstore.model.OrderItem;
+import com.example.bookstore.record.DailyBookSalesDto;
+import com.example.bookstore.repository.BookSalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Component
+public class BestsellerRanking {
+
+    private static final Logger log = LoggerFactory.getLogger(BestsellerRanking.class);
+
+    private static final String KEY_PREFIX = "bestsellers:";
+    private static final double PURCHASE_SCORE = 1.0;
+    private static final double RENTAL_SCORE = 0.5;
+    private static final double MIN_SCORE = Double.MIN_VALUE;
+    private static final Duration DAY_BUCKET_TTL = Duration.ofDays(32);
+    private static final Duration STAGING_TTL = Duration.ofHours(1);
+    private static final String REBUILD_LOCK_KEY = KEY_PREFIX + "rebuild-lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(10);
+
+    private static final RedisScript<Long> APPLY_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #ARGV, 2 do
+                for k = 1, #KEYS do
+                    redis.call('ZINCRBY', KEYS[k], ARGV[i + 1], ARGV[i])
+                end
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> ROLL_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZUNIONSTORE', KEYS[1], #KEYS - 1, unpack(KEYS, 2))
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', 0)
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    private static final RedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #KEYS, 2 do
+                if redis.call('EXISTS', KEYS[i]) == 1 then
+                    redis.call('RENAME', KEYS[i], KEYS[i + 1])
+                    redis.call('EXPIRE', KEYS[i + 1], ARGV[1])
+                else
+                    redis.call('DEL', KEYS[i + 1])
+                end
+            end
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    public enum Window {
+        WEEK(7),
+        MONTH(30);
+
+        private final int days;
+
+        Window(int days) {
+            this.days = days;
+        }
+
+        public int getDays() {
+            return days;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final BookSalesRepository bookSalesRepository;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public BestsellerRanking(StringRedisTemplate redisTemplate, BookSalesRepository bookSalesRepository) {
+        this.redisTemplate = redisTemplate;
+        this.bookSalesRepository = bookSalesRepository;
+    }
+
+    public List<Integer> getPage(Window window, int page, int size) {
+        Set<String> ids = redisTemplate.opsForZSet().reverseRangeByScore(
+                windowKey(window), MIN_SCORE, Double.POSITIVE_INFINITY, (long) page * size, size);
+        if (ids == null) {
+            return List.of();
+        }
+        List<Integer> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            result.add(Integer.valueOf(id));
+        }
+        return result;
+    }
+
+    public Map<Integer, Double> getScores(Window window) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet().rangeByScoreWithScores(
+                windowKey(window), MIN_SCORE, Double.POSITIVE_INFINITY);
+        Map<Integer, Double> scores = new HashMap<>();
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                if (tuple.getValue() != null && tuple.getScore() != null) {
+                    scores.put(Integer.valueOf(tuple.getValue()), tuple.getScore());
+                }
+            }
+        }
+        return scores;
+    }
+
+    public long count(Window window) {
+        Long count = redisTemplate.opsForZSet().count(windowKey(window), MIN_SCORE, Double.POSITIVE_INFINITY);
+        return count != null ? count : 0L;
+    }
+
+    public void recordOrder(LocalDateTime orderedAt, List<OrderItem> items) {
+        afterCommit(orderedAt, items, 1);
+    }
+
+    public void recordCancellation(LocalDateTime orderedAt, List<OrderItem> items) {
+        afterCommit(orderedAt, items, -1);
+    }
+
+    @Scheduled(cron = "0 5 * * * *")
+    public void rollWindows() {
+        LocalDate today = LocalDate.now();
+        for (Window window : Window.values()) {
+            List<String> keys = new ArrayList<>(window.getDays() + 1);
+            keys.add(windowKey(window));
+            for (int i = 0; i < window.getDays(); i++) {
+                keys.add(dayKey(today.minusDays(i)));
+            }
+            redisTemplate.execute(ROLL_SCRIPT, keys);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 15 4 * * *")
+    public void rebuildFromOrders() {
+        Boolean locked;
+        try {
+            locked = redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, nodeId, REBUILD_LOCK_TTL);
+        } catch (Exception e) {
+            log.warn("Failed to acquire bestseller rebuild lock: {}", e.getMessage());
+            return;
+        }
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Bestseller ranking rebuild already running on another node");
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate since = today.minusDays(Window.MONTH.getDays() - 1);
+            List<DailyBookSalesDto> sales = bookSalesRepository.getDailySalesSince(since);
+
+            List<String> swapKeys = new ArrayList<>();
+            for (LocalDate day = since; !day.isAfter(today); day = day.plusDays(1)) {
+                redisTemplate.delete(stagingKey(day));
+                swapKeys.add(stagingKey(day));
+                swapKeys.add(dayKey(day));
+            }
+
+            for (DailyBookSalesDto row : sales) {
+                double score = row.purchases() * PURCHASE_SCORE + row.rentals() * RENTAL_SCORE;
+                String key = stagingKey(row.day());
+                redisTemplate.opsForZSet().incrementScore(key, row.bookId().toString(), score);
+                redisTemplate.expire(key, STAGING_TTL);
+            }
+            redisTemplate.execute(SWAP_SCRIPT, swapKeys, String.valueOf(DAY_BUCKET_TTL.toSeconds()));
+            rollWindows();
+            log.info("Rebuilt bestseller ranking from {} daily sales rows", sales.size());
+        } catch (Exception e) {
+            log.warn("Failed to rebuild bestseller ranking: {}", e.getMessage());
+        } finally {
+            try {
+                redisTemplate.execute(UNLOCK_SCRIPT, List.of(REBUILD_LOCK_KEY), nodeId);
+            } catch (Exception e) {
+                log.warn("Failed to release bestseller rebuild lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void afterCommit(LocalDateTime orderedAt, List<OrderItem> items, int direction) {
+        Map<String, Double> scores = new HashMap<>();
+        for (OrderItem item : items) {
+            double score = item.getType() == ItemType.RENT ? RENTAL_SCORE : PURCHASE_SCORE;
+            scores.merge(item.getBookId().toString(), score * direction, Double::sum);
+        }
+        if (scores.isEmpty()) {
+            return;
+        }
+        LocalDate day = orderedAt != null ? orderedAt.toLocalDate() : LocalDate.now();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(day, scores);
+                }
+            });
+        } else {
+            apply(day, scores);
+        }
+    }
+
+    private void apply(LocalDate day, Map<String, Double> scores) {
+        try {
+            List<String> keys = new ArrayList<>();
+            keys.add(dayKey(day));
+            long age = Duration.between(day.atStartOfDay(), LocalDate.now().atStartOfDay()).toDays();
+            for (Window window : Window.values()) {
+                if (age < window.getDays()) {
+                    keys.add(windowKey(window));
+                }
+            }
+
+            List<String> args = new ArrayList<>(scores.size() * 2 + 1);
+            args.add(String.valueOf(DAY_BUCKET_TTL.toSeconds()));
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                args.add(entry.getKey());
+                args.add(entry.getValue().toString());
+            }
+            redisTemplate.execute(APPLY_SCRIPT, keys, args.toArray());
+        } catch (Exception e) {
+            log.warn("Failed to update bestseller ranking: {}", e.getMessage());
+        }
+    }
+
+    private String dayKey(LocalDate day) {
+        return KEY_PREFIX + "day:" + day;
+    }
+
+    private String stagingKey(LocalDate day) {
+        return KEY_PREFIX + "rebuild:day:" + day;
+    }
+
+    private String windowKey(Window window) {
+        return KEY_PREFIX + window.name().toLowerCase();
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.model.BookCategory;
+import com.example.bookstore.model.BookGenre;
+import com.example.bookstore.repository.BookCategoryRepository;
+import com.example.bookstore.repository.BookGenreRepository;
+import com.example.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Component
+public class CatalogFacetIndex implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogFacetIndex.class);
+
+    public static final String INVALIDATION_CHANNEL = "catalog-facets:invalidate";
+    private static final String VERSION_KEY = "catalog-facets:version";
+
+    private enum Change {
+        GENRES,
+        CATEGORIES,
+        STATUS,
+        ALL
+    }
+
+    private record Snapshot(long version,
+                            BitSet all,
+                            Map<Integer, BitSet> byGenre,
+                            Map<Integer, BitSet> byCategory,
+                            Map<String, BitSet> byStatus) {}
+
+    private final BookRepository bookRepository;
+    private final BookGenreRepository bookGenreRepository;
+    private final BookCategoryRepository bookCategoryRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CatalogFacetIndex(BookRepository bookRepository,
+                             BookGenreRepository bookGenreRepository,
+                             BookCategoryRepository bookCategoryRepository,
+                             StringRedisTemplate redisTemplate,
+                             RedisMessageListenerContainer listenerContainer) {
+        this.bookRepository = bookRepository;
+        this.bookGenreRepository = bookGenreRepository;
+        this.bookCategoryRepository = bookCategoryRepository;
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public BitSet match(Collection<Integer> genreIds, Collection<Integer> categoryIds) {
+        Snapshot current = current();
+        BitSet result = (BitSet) current.all().clone();
+        if (genreIds != null) {
+            result.and(union(current.byGenre(), genreIds));
+        }
+        if (categoryIds != null) {
+            result.and(union(current.byCategory(), categoryIds));
+        }
+        return result;
+    }
+
+    public Map<String, Object> facetCounts(Collection<Integer> genreIds, Collection<Integer> categoryIds,
+                                           BitSet restrictTo) {
+        Snapshot current = current();
+
+        BitSet base = (BitSet) current.all().clone();
+        if (restrictTo != null) {
+            base.and(restrictTo);
+        }
+
+        BitSet forGenres = (BitSet) base.clone();
+        if (categoryIds != null) {
+            forGenres.and(union(current.byCategory(), categoryIds));
+        }
+        BitSet forCategories = (BitSet) base.clone();
+        if (genreIds != null) {
+            forCategories.and(union(current.byGenre(), genreIds));
+        }
+        BitSet forStatus = (BitSet) forGenres.clone();
+        if (genreIds != null) {
+            forStatus.and(union(current.byGenre(), genreIds));
+        }
+
+        Map<String, Object> facets = new HashMap<>();
+        facets.put("genres", count(current.byGenre(), forGenres));
+        facets.put("categories", count(current.byCategory(), forCategories));
+        facets.put("availability", count(current.byStatus(), forStatus));
+        return facets;
+    }
+
+    public void replaceGenres(Integer bookId, Collection<Integer> genreIds) {
+        afterCommit(Change.GENRES, bookId, join(genreIds));
+    }
+
+    public void replaceCategories(Integer bookId, Collection<Integer> categoryIds) {
+        afterCommit(Change.CATEGORIES, bookId, join(categoryIds));
+    }
+
+    public void updateStatus(Integer bookId, String status) {
+        afterCommit(Change.STATUS, bookId, status == null ? "" : status);
+    }
+
+    public void invalidate() {
+        afterCommit(Change.ALL, 0, "");
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", -1);
+        if (parts.length != 5 || nodeId.equals(parts[4])) {
+            return;
+        }
+        try {
+            apply(Change.valueOf(parts[0]), Integer.valueOf(parts[1]), parts[2], Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unknown facet index change: {}", parts[0]);
+            snapshot.set(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.facet-index.resync-interval:30000}")
+    public void resync() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        Long latest = readVersion();
+        if (latest != null && latest > current.version()) {
+            log.info("Catalog facet index at version {} is behind {}, rebuilding", current.version(), latest);
+            snapshot.compareAndSet(current, null);
+        }
+    }
+
+    private void afterCommit(Change change, Integer bookId, String values) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(change, bookId, values);
+                }
+            });
+        } else {
+            publish(change, bookId, values);
+        }
+    }
+
+    private void publish(Change change, Integer bookId, String values) {
+        long version;
+        try {
+            version = redisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("Failed to version facet index change, rebuilding locally: {}", e.getMessage());
+            snapshot.set(null);
+            return;
+        }
+        apply(change, bookId, values, version);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    change + ":" + bookId + ":" + values + ":" + version + ":" + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast facet index change: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Change change, Integer bookId, String values, long version) {
+        synchronized (snapshot) {
+            Snapshot s = snapshot.get();
+            if (s == null || version <= s.version()) {
+                return;
+            }
+            if (change == Change.ALL || version != s.version() + 1) {
+                // A skipped version means a change was missed; rebuild rather than drift.
+                snapshot.set(null);
+                return;
+            }
+            snapshot.set(switch (change) {
+                case GENRES -> new Snapshot(version, s.all(), reassign(s.byGenre(), bookId, ids(values)),
+                        s.byCategory(), s.byStatus());
+                case CATEGORIES -> new Snapshot(version, s.all(), s.byGenre(),
+                        reassign(s.byCategory(), bookId, ids(values)), s.byStatus());
+                default -> {
+                    BitSet all = (BitSet) s.all().clone();
+                    all.set(bookId);
+                    yield new Snapshot(version, all, s.byGenre(), s.byCategory(),
+                            reassign(s.byStatus(), bookId, values.isEmpty() ? List.of() : List.of(values)));
+                }
+            });
+        }
+    }
+
+    private Long readVersion() {
+        try {
+            String value = redisTemplate.opsForValue().get(VERSION_KEY);
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            log.warn("Failed to read facet index version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String join(Collection<Integer> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static List<Integer> ids(String values) {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(values.split(",")).map(Integer::valueOf).toList();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (snapshot) {
+            current = snapshot.get();
+            if (current == null) {
+                current = build();
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build() {
+        // Read the version before the data so any change at or below it is already visible.
+        Long version = readVersion();
+        BitSet all = new BitSet();
+        Map<String, BitSet> byStatus = new HashMap<>();
+        for (Object[] row : bookRepository.findAllStatuses()) {
+            Integer bookId = (Integer) row[0];
+            all.set(bookId);
+            if (row[1] != null) {
+                byStatus.computeIfAbsent((String) row[1], k -> new BitSet()).set(bookId);
+            }
+        }
+
+        Map<Integer, BitSet> byGenre = new HashMap<>();
+        for (BookGenre link : bookGenreRepository.findAll()) {
+            byGenre.computeIfAbsent(link.getGenreId(), k -> new BitSet()).set(link.getBookId());
+        }
+
+        Map<Integer, BitSet> byCategory = new HashMap<>();
+        for (BookCategory link : bookCategoryRepository.findAll()) {
+            byCategory.computeIfAbsent(link.getCategoryId(), k -> new BitSet()).set(link.getBookId());
+        }
+
+        log.info("Built catalog facet index for {} books", all.cardinality());
+        return new Snapshot(version == null ? 0L : version, all, byGenre, byCategory, byStatus);
+    }
+
+    private static <K> Map<K, BitSet> reassign(Map<K, BitSet> source, Integer bookId, Collection<K> keys) {
+        Map<K, BitSet> copy = new HashMap<>(source.size() + keys.size());
+        for (Map.Entry<K, BitSet> entry : source.entrySet()) {
+            BitSet bits = entry.getValue();
+            if (bits.get(bookId) != keys.contains(entry.getKey())) {
+                bits = (BitSet) bits.clone();
+                bits.flip(bookId);
+            }
+            copy.put(entry.getKey(), bits);
+        }
+        for (K key : keys) {
+            copy.computeIfAbsent(key, k -> new BitSet()).set(bookId);
+        }
+        return copy;
+    }
+
+    private static <K> BitSet union(Map<K, BitSet> index, Collection<K> keys) {
+        BitSet result = new BitSet();
+        for (K key : keys) {
+            BitSet bits = index.get(key);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Integer> count(Map<K, BitSet> index, BitSet within) {
+        Map<K, Integer> counts = new HashMap<>();
+        for (Map.Entry<K, BitSet> entry : index.entrySet()) {
+            BitSet bits = (BitSet) entry.getValue().clone();
+            bits.and(within);
+            int cardinality = bits.cardinality();
+            if (cardinality > 0) {
+                counts.put(entry.getKey(), cardinality);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.record.SuggestionDto;
+import com.example.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class CatalogSuggestIndex implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSuggestIndex.class);
+
+    public static final String INVALIDATION_CHANNEL = "catalog-suggest:invalidate";
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAX_KEY_LENGTH = 48;
+    private static final String BOOK = "BOOK";
+    private static final String AUTHOR = "AUTHOR";
+
+    private record Entry(String type, Integer id, String text, double score) {
+        SuggestionDto toDto() {
+            return new SuggestionDto(type, id, text);
+        }
+    }
+
+    private record Node(char[] keys, Node[] children, Entry[] terminal, Entry[] top) {
+        static final Node EMPTY = new Node(new char[0], new Node[0], new Entry[0], new Entry[0]);
+
+        boolean isEmpty() {
+            return keys.length == 0 && terminal.length == 0;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private record Snapshot(Map<Integer, Entry> books, Map<Integer, Entry> authors, Node root) {}
+
+    private static final class NodeBuilder {
+        private final TreeMap<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<Entry> terminal = new ArrayList<>(1);
+        private final List<Entry> top = new ArrayList<>(MAX_SUGGESTIONS + 1);
+
+        void offer(Entry entry) {
+            for (Entry existing : top) {
+                if (existing.equals(entry)) {
+                    return;
+                }
+            }
+            if (top.size() == MAX_SUGGESTIONS && RANKING.compare(entry, top.get(MAX_SUGGESTIONS - 1)) >= 0) {
+                return;
+            }
+            int position = 0;
+            while (position < top.size() && RANKING.compare(top.get(position), entry) <= 0) {
+                position++;
+            }
+            top.add(position, entry);
+            if (top.size() > MAX_SUGGESTIONS) {
+                top.remove(MAX_SUGGESTIONS);
+            }
+        }
+
+        Node freeze() {
+            char[] keys = new char[children.size()];
+            Node[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                frozen[i] = child.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, frozen, terminal.toArray(new Entry[0]), top.toArray(new Entry[0]));
+        }
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::text, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Entry::type)
+            .thenComparing(Entry::id);
+
+    private final BookRepository bookRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final BestsellerRanking bestsellerRanking;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CatalogSuggestIndex(BookRepository bookRepository,
+                               ReferenceDataCache referenceDataCache,
+                               BestsellerRanking bestsellerRanking,
+                               StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer) {
+        this.bookRepository = bookRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.bestsellerRanking = bestsellerRanking;
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        if (prefix.length() > MAX_KEY_LENGTH) {
+            prefix = prefix.substring(0, MAX_KEY_LENGTH);
+        }
+        Node node = current().root();
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int count = Math.min(Math.min(limit, MAX_SUGGESTIONS), node.top().length);
+        List<SuggestionDto> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(node.top()[i].toDto());
+        }
+        return result;
+    }
+
+    public void updateBook(Integer bookId, String title) {
+        afterCommit(BOOK, bookId, title);
+    }
+
+    public void updateAuthor(Integer authorId, String fullName) {
+        afterCommit(AUTHOR, authorId, fullName);
+    }
+
+    public void invalidate() {
+        refresh();
+        broadcast(nodeId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 20 * * * *")
+    public void refresh() {
+        try {
+            Snapshot rebuilt = build();
+            snapshot.set(rebuilt);
+            log.info("Built suggestion index for {} books and {} authors",
+                    rebuilt.books().size(), rebuilt.authors().size());
+        } catch (Exception e) {
+            log.warn("Failed to build suggestion index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 4);
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        if (parts.length < 4) {
+            refresh();
+            return;
+        }
+        try {
+            replace(parts[1], Integer.valueOf(parts[2]), parts[3]);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed suggestion index change: {}", parts[2]);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        StringBuilder result = new StringBuilder(stripped.length());
+        boolean space = false;
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && result.length() > 0) {
+                    result.append(' ');
+                }
+                result.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return result.toString();
+    }
+
+    private void afterCommit(String type, Integer id, String text) {
+        String value = text == null ? "" : text;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(type, id, value);
+                    broadcast(nodeId + ":" + type + ":" + id + ":" + value);
+                }
+            });
+        } else {
+            replace(type, id, value);
+            broadcast(nodeId + ":" + type + ":" + id + ":" + value);
+        }
+    }
+
+    private void replace(String type, Integer id, String text) {
+        synchronized (snapshot) {
+            Snapshot current = snapshot.get();
+            if (current == null) {
+                return;
+            }
+            boolean book = BOOK.equals(type);
+            Map<Integer, Entry> entries = new HashMap<>(book ? current.books() : current.authors());
+            Entry previous = entries.get(id);
+            Entry entry = new Entry(book ? BOOK : AUTHOR, id, text, previous != null ? previous.score() : 0);
+            entries.put(id, entry);
+            Node root = rewrite(current.root(), previous != null ? paths(previous) : List.of(), paths(entry),
+                    0, previous, entry);
+            snapshot.set(book
+                    ? new Snapshot(entries, current.authors(), root)
+                    : new Snapshot(current.books(), entries, root));
+        }
+    }
+
+    private void broadcast(String payload) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, payload);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast suggestion index change: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (snapshot) {
+            current = snapshot.get();
+            if (current == null) {
+                current = build();
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build() {
+        Map<Integer, Double> sales = bestsellerRanking.getScores(BestsellerRanking.Window.MONTH);
+        Map<Integer, Double> authorScores = new HashMap<>();
+        Map<Integer, Entry> books = new HashMap<>();
+        for (Object[] row : bookRepository.findAllTitles()) {
+            Integer bookId = (Integer) row[0];
+            Integer authorId = (Integer) row[2];
+            double score = sales.getOrDefault(bookId, 0.0);
+            books.put(bookId, new Entry(BOOK, bookId, (String) row[1], score));
+            if (authorId != null) {
+                authorScores.merge(authorId, score, Double::sum);
+            }
+        }
+
+        Map<Integer, Entry> authors = new HashMap<>();
+        for (Map.Entry<Integer, String> author : referenceDataCache.getAuthorNames().entrySet()) {
+            authors.put(author.getKey(), new Entry(AUTHOR, author.getKey(), author.getValue(),
+                    authorScores.getOrDefault(author.getKey(), 0.0)));
+        }
+        return index(books, authors);
+    }
+
+    private static Snapshot index(Map<Integer, Entry> books, Map<Integer, Entry> authors) {
+        NodeBuilder root = new NodeBuilder();
+        for (Entry entry : books.values()) {
+            insert(root, entry);
+        }
+        for (Entry entry : authors.values()) {
+            insert(root, entry);
+        }
+        return new Snapshot(books, authors, root.freeze());
+    }
+
+    private static void insert(NodeBuilder root, Entry entry) {
+        for (String path : paths(entry)) {
+            NodeBuilder node = root;
+            for (int i = 0; i < path.length(); i++) {
+                node = node.children.computeIfAbsent(path.charAt(i), c -> new NodeBuilder());
+                node.offer(entry);
+            }
+            if (!node.terminal.contains(entry)) {
+                node.terminal.add(entry);
+            }
+        }
+    }
+
+    private static List<String> paths(Entry entry) {
+        String key = normalize(entry.text());
+        List<String> paths = new ArrayList<>();
+        for (int start = 0; start < key.length(); start++) {
+            if (start == 0 || key.charAt(start - 1) == ' ') {
+                paths.add(key.substring(start, Math.min(key.length(), start + MAX_KEY_LENGTH)));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Copies only the nodes on the old and new paths of a changed entry, re-ranking each
+     * from its own terminal entries and its children's top lists; every other node is shared.
+     */
+    private static Node rewrite(Node node, List<String> removed, List<String> added, int depth,
+                                Entry previous, Entry entry) {
+        List<Entry> terminal = new ArrayList<>(Arrays.asList(node.terminal()));
+        if (previous != null && endsAt(removed, depth)) {
+            terminal.removeIf(previous::equals);
+        }
+        if (endsAt(added, depth) && !terminal.contains(entry)) {
+            terminal.add(entry);
+        }
+
+        TreeMap<Character, Node> children = new TreeMap<>();
+        for (int i = 0; i < node.keys().length; i++) {
+            children.put(node.keys()[i], node.children()[i]);
+        }
+        TreeSet<Character> touched = new TreeSet<>();
+        collectNext(removed, depth, touched);
+        collectNext(added, depth, touched);
+        for (char c : touched) {
+            Node child = rewrite(children.getOrDefault(c, Node.EMPTY), below(removed, depth, c),
+                    below(added, depth, c), depth + 1, previous, entry);
+            if (child.isEmpty()) {
+                children.remove(c);
+            } else {
+                children.put(c, child);
+            }
+        }
+
+        char[] keys = new char[children.size()];
+        Node[] nodes = new Node[children.size()];
+        NodeBuilder ranking = new NodeBuilder();
+        terminal.forEach(ranking::offer);
+        int i = 0;
+        for (Map.Entry<Character, Node> child : children.entrySet()) {
+            keys[i] = child.getKey();
+            nodes[i] = child.getValue();
+            for (Entry candidate : child.getValue().top()) {
+                ranking.offer(candidate);
+            }
+            i++;
+        }
+        return new Node(keys, nodes, terminal.toArray(new Entry[0]), ranking.top.toArray(new Entry[0]));
+    }
+
+    private static boolean endsAt(List<String> paths, int depth) {
+        for (String path : paths) {
+            if (path.length() == depth) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collectNext(List<String> paths, int depth, Set<Character> into) {
+        for (String path : paths) {
+            if (path.length() > depth) {
+                into.add(path.charAt(depth));
+            }
+        }
+    }
+
+    private static List<String> below(List<String> paths, int depth, char c) {
+        List<String> result = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            if (path.length() > depth && path.charAt(depth) == c) {
+                result.add(path);
+            }
+        }
+        return result;
+    }
+}
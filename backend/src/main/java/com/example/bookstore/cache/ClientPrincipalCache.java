@@ -0,0 +1,160 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.exception.NotFoundException;
+import com.example.bookstore.exception.UnauthorizedException;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.repository.ClientRepository;
+import com.example.bookstore.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ClientPrincipalCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientPrincipalCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "client-principal:invalidate";
+
+    private interface Expiring {
+        long expiresAt();
+    }
+
+    private record Principal(Integer clientId, long expiresAt) implements Expiring {}
+
+    private record Snapshot(Client client, long expiresAt) implements Expiring {}
+
+    private final ClientRepository clientRepository;
+    private final JwtUtils jwtUtils;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration tokenTtl;
+    private final Duration clientTtl;
+    private final int maxSize;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Principal> principals = new ConcurrentHashMap<>();
+    private final Map<Integer, Snapshot> clients = new ConcurrentHashMap<>();
+
+    public ClientPrincipalCache(ClientRepository clientRepository,
+                                JwtUtils jwtUtils,
+                                StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                @Value("${auth.principal-cache.token-ttl:10m}") Duration tokenTtl,
+                                @Value("${auth.principal-cache.client-ttl:5m}") Duration clientTtl,
+                                @Value("${auth.principal-cache.max-size:10000}") int maxSize) {
+        this.clientRepository = clientRepository;
+        this.jwtUtils = jwtUtils;
+        this.redisTemplate = redisTemplate;
+        this.tokenTtl = tokenTtl;
+        this.clientTtl = clientTtl;
+        this.maxSize = maxSize;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public Client getClient(String jwtToken) {
+        long now = System.currentTimeMillis();
+        Principal principal = principals.get(jwtToken);
+        if (principal != null && principal.expiresAt() > now) {
+            return copyOf(findClient(principal.clientId(), now));
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(jwtToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            principals.remove(jwtToken);
+            throw new UnauthorizedException("Invalid or expired token.");
+        }
+        Client client = clientRepository.findByEmail(claims.getSubject())
+                .orElseThrow(() -> new NotFoundException("User not found."));
+        put(clients, client.getUserId(), new Snapshot(copyOf(client), now + clientTtl.toMillis()), now);
+
+        long expiresAt = now + tokenTtl.toMillis();
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        put(principals, jwtToken, new Principal(client.getUserId(), expiresAt), now);
+        return client;
+    }
+
+    public void forgetToken(String jwtToken) {
+        principals.remove(jwtToken);
+    }
+
+    public void evict(Integer clientId) {
+        evictLocal(clientId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, clientId + ":" + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast client {} invalidation: {}", clientId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length == 2 && nodeId.equals(parts[1])) {
+            return;
+        }
+        try {
+            evictLocal(Integer.valueOf(parts[0]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring unknown client invalidation: {}", parts[0]);
+        }
+    }
+
+    private Client findClient(Integer clientId, long now) {
+        Snapshot snapshot = clients.get(clientId);
+        if (snapshot != null && snapshot.expiresAt() > now) {
+            return snapshot.client();
+        }
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new NotFoundException("User not found."));
+        Client copy = copyOf(client);
+        put(clients, clientId, new Snapshot(copy, now + clientTtl.toMillis()), now);
+        return copy;
+    }
+
+    private void evictLocal(Integer clientId) {
+        clients.remove(clientId);
+        principals.values().removeIf(principal -> principal.clientId().equals(clientId));
+    }
+
+    private <K, V extends Expiring> void put(Map<K, V> cache, K key, V value, long now) {
+        if (cache.size() >= maxSize) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+            Iterator<K> keys = cache.keySet().iterator();
+            while (cache.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        cache.put(key, value);
+    }
+
+    private static Client copyOf(Client client) {
+        Client copy = new Client();
+        copy.setUserId(client.getUserId());
+        copy.setEmail(client.getEmail());
+        copy.setPassword(client.getPassword());
+        copy.setFirstName(client.getFirstName());
+        copy.setLastName(client.getLastName());
+        copy.setContactPhone(client.getContactPhone());
+        copy.setCreatedAt(client.getCreatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bookstore.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String KEY_PREFIX = "rate-limit:";
+    private static final int DEFAULT_CAPACITY = 60;
+    private static final Duration DEFAULT_PERIOD = Duration.ofMinutes(1);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local interval = tonumber(ARGV[2])
+            local now = tonumber(ARGV[3])
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1])
+            local ts = tonumber(bucket[2])
+            if not tokens then
+                tokens = capacity
+                ts = now
+            end
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) / interval)
+            local allowed = 0
+            local retryAfter = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            else
+                retryAfter = math.ceil((1 - tokens) * interval)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * interval))
+            return {allowed, math.floor(tokens), retryAfter}
+            """, List.class);
+
+    private static final RedisScript<Long> COUNTER_SCRIPT = new DefaultRedisScript<>("""
+            local count = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return count
+            """, Long.class);
+
+    public record Decision(boolean allowed, long remaining, long retryAfterMillis) {
+
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterMillis + 999) / 1000);
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    public RateLimiter(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry, Environment environment) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    public Decision tryAcquire(String policy, String key) {
+        int capacity = environment.getProperty("rate-limit." + policy + ".capacity", Integer.class, DEFAULT_CAPACITY);
+        Duration period = environment.getProperty("rate-limit." + policy + ".period", Duration.class, DEFAULT_PERIOD);
+        return tryAcquire(policy, key, capacity, period);
+    }
+
+    public Decision tryAcquire(String policy, String key, int capacity, Duration period) {
+        double interval = (double) period.toMillis() / capacity;
+        try {
+            List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(KEY_PREFIX + policy + ":" + key),
+                    String.valueOf(capacity), String.valueOf(interval), String.valueOf(System.currentTimeMillis()));
+            Decision decision = new Decision(((Number) result.get(0)).longValue() == 1,
+                    ((Number) result.get(1)).longValue(), ((Number) result.get(2)).longValue());
+            record(policy, decision.allowed() ? "allowed" : "rejected");
+            return decision;
+        } catch (Exception e) {
+            log.warn("Rate limiter unavailable for {}, allowing request: {}", policy, e.getMessage());
+            record(policy, "error");
+            return new Decision(true, capacity, 0);
+        }
+    }
+
+    public long increment(String key, Duration window) {
+        return redisTemplate.execute(COUNTER_SCRIPT, List.of(key), String.valueOf(window.toMillis()));
+    }
+
+    private void record(String policy, String result) {
+        meterRegistry.counter("rate.limit.requests", "policy", policy, "result", result).increment();
+    }
+}
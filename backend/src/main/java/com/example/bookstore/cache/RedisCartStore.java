@@ -0,0 +1,437 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.enums.ItemType;
+import com.example.bookstore.exception.CartException;
+import com.example.bookstore.model.Cart;
+import com.example.bookstore.model.CartItem;
+import com.example.bookstore.repository.CartItemRepository;
+import com.example.bookstore.repository.CartPersistenceRepository;
+import com.example.bookstore.repository.CartRepository;
+import com.example.bookstore.repository.CartStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCartStore.class);
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String DIRTY_KEY = KEY_PREFIX + "dirty";
+    private static final String CART_ID_FIELD = "cartId";
+    private static final String SEQ_FIELD = "seq";
+    private static final String ITEM_PREFIX = "item:";
+    private static final String NO_CART = "0";
+    private static final int FLUSH_BATCH = 500;
+
+    private static final String COUNT_ITEMS = """
+            local items = 0
+            for _, field in ipairs(redis.call('HKEYS', KEYS[1])) do
+                if string.sub(field, 1, 5) == 'item:' then
+                    items = items + 1
+                end
+            end
+            """;
+
+    private static final RedisScript<Long> HYDRATE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> ENSURE_CART_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'cartId')
+            if current and current ~= '0' then
+                return tonumber(current)
+            end
+            redis.call('HSET', KEYS[1], 'cartId', ARGV[1], 'seq', 0)
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return tonumber(ARGV[1])
+            """, Long.class);
+
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            local cartId = redis.call('HGET', KEYS[1], 'cartId')
+            if not cartId or cartId == '0' then
+                return -2
+            end
+            """ + COUNT_ITEMS + """
+            if items >= tonumber(ARGV[1]) then
+                return -1
+            end
+            local id = redis.call('HINCRBY', KEYS[1], 'seq', 1)
+            redis.call('HSET', KEYS[1], 'item:' .. id, ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('SADD', KEYS[2], ARGV[4])
+            return id
+            """, Long.class);
+
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HDEL', KEYS[1], 'item:' .. ARGV[1]) == 0 then
+                return -1
+            end
+            """ + COUNT_ITEMS + """
+            if items == 0 then
+                redis.call('DEL', KEYS[1])
+                redis.call('HSET', KEYS[1], 'cartId', '0')
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('SADD', KEYS[2], ARGV[3])
+            return items
+            """, Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+            local cartId = redis.call('HGET', KEYS[1], 'cartId')
+            if not cartId or cartId == '0' then
+                return {-2}
+            end
+            local expected = tonumber(ARGV[4])
+            local actual = 0
+            for _, field in ipairs(redis.call('HKEYS', KEYS[1])) do
+                if string.sub(field, 1, 5) == 'item:' then
+                    actual = actual + 1
+                end
+            end
+            if actual ~= expected then
+                return {-1}
+            end
+            for i = 5, 4 + expected * 2, 2 do
+                if redis.call('HGET', KEYS[1], 'item:' .. ARGV[i]) ~= ARGV[i + 1] then
+                    return {-1}
+                end
+            end
+            for id in string.gmatch(ARGV[3], '%d+') do
+                redis.call('HDEL', KEYS[1], 'item:' .. id)
+            end
+            local created = {1}
+            for i = 5 + expected * 2, #ARGV, 2 do
+                if ARGV[i] == 'new' then
+                    local id = redis.call('HINCRBY', KEYS[1], 'seq', 1)
+                    redis.call('HSET', KEYS[1], 'item:' .. id, ARGV[i + 1])
+                    table.insert(created, id)
+                else
+                    redis.call('HSET', KEYS[1], 'item:' .. ARGV[i], ARGV[i + 1])
+                end
+            end
+            """ + COUNT_ITEMS + """
+            if items == 0 then
+                redis.call('DEL', KEYS[1])
+                redis.call('HSET', KEYS[1], 'cartId', '0')
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            redis.call('SADD', KEYS[2], ARGV[2])
+            return created
+            """, List.class);
+
+    private static final RedisScript<Long> CLEAR_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'cartId', '0')
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            redis.call('SADD', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private record StoredItem(Integer bookId, ItemType type, Integer rentalDays, LocalDateTime addedAt) {}
+
+    private record CartState(Integer cartId, List<CartItem> items) {}
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartPersistenceRepository cartPersistenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate,
+                          CartRepository cartRepository,
+                          CartItemRepository cartItemRepository,
+                          CartPersistenceRepository cartPersistenceRepository,
+                          TransactionTemplate transactionTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${cart.redis.ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.cartPersistenceRepository = cartPersistenceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<Integer> findCartId(Integer userId) {
+        return Optional.ofNullable(load(userId).cartId());
+    }
+
+    @Override
+    public Integer getOrCreateCartId(Integer userId) {
+        CartState state = load(userId);
+        if (state.cartId() != null) {
+            return state.cartId();
+        }
+        Integer allocated = cartPersistenceRepository.allocateCartId();
+        Long cartId = redisTemplate.execute(ENSURE_CART_SCRIPT, List.of(cartKey(userId)),
+                allocated.toString(), String.valueOf(ttl.toMillis()));
+        return cartId.intValue();
+    }
+
+    @Override
+    public CartItem addItem(Integer userId, CartItem item, int maxItems) {
+        Integer cartId = getOrCreateCartId(userId);
+        Long id = redisTemplate.execute(ADD_SCRIPT, List.of(cartKey(userId), DIRTY_KEY),
+                String.valueOf(maxItems), write(item), String.valueOf(ttl.toMillis()), userId.toString());
+        if (id == -1) {
+            throw new CartException("Cart is full. Maximum " + maxItems + " items allowed");
+        }
+        if (id == -2) {
+            throw new CartException("Cart is empty or not found");
+        }
+        item.setCartItemId(id.intValue());
+        item.setCartId(cartId);
+        return item;
+    }
+
+    @Override
+    public Optional<CartItem> findItem(Integer userId, Integer cartItemId) {
+        return load(userId).items().stream()
+                .filter(item -> item.getCartItemId().equals(cartItemId))
+                .findFirst();
+    }
+
+    @Override
+    public long removeItem(Integer userId, CartItem item) {
+        Long remaining = redisTemplate.execute(REMOVE_SCRIPT, List.of(cartKey(userId), DIRTY_KEY),
+                item.getCartItemId().toString(), String.valueOf(ttl.toMillis()), userId.toString());
+        if (remaining == -1) {
+            throw new CartException("Cart item not found");
+        }
+        return remaining;
+    }
+
+    @Override
+    public List<CartItem> findItems(Integer userId) {
+        return load(userId).items();
+    }
+
+    @Override
+    public List<CartItem> lockItems(Integer userId) {
+        return load(userId).items();
+    }
+
+    @Override
+    public List<CartItem> replaceItems(Integer userId, List<CartItem> current, List<CartItem> updated) {
+        Map<Integer, CartItem> currentById = new HashMap<>();
+        current.forEach(item -> currentById.put(item.getCartItemId(), item));
+        Set<Integer> keptIds = new HashSet<>();
+
+        List<Object> args = new ArrayList<>();
+        args.add(String.valueOf(ttl.toMillis()));
+        args.add(userId.toString());
+        args.add("");
+        args.add(String.valueOf(current.size()));
+        for (CartItem item : current) {
+            args.add(item.getCartItemId().toString());
+            args.add(write(item));
+        }
+        List<CartItem> created = new ArrayList<>();
+        for (CartItem item : updated) {
+            if (item.getCartItemId() == null) {
+                args.add("new");
+                args.add(write(item));
+                created.add(item);
+                continue;
+            }
+            keptIds.add(item.getCartItemId());
+            CartItem existing = currentById.get(item.getCartItemId());
+            if (existing == null || !Objects.equals(existing.getRentalDays(), item.getRentalDays())) {
+                args.add(item.getCartItemId().toString());
+                args.add(write(item));
+            }
+        }
+        args.set(2, currentById.keySet().stream()
+                .filter(id -> !keptIds.contains(id))
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+
+        List<?> result = redisTemplate.execute(REPLACE_SCRIPT, List.of(cartKey(userId), DIRTY_KEY), args.toArray());
+        long status = ((Number) result.get(0)).longValue();
+        if (status == -1) {
+            throw new CartException("Cart was modified concurrently, please retry");
+        }
+        if (status == -2) {
+            throw new CartException("Cart is empty or not found");
+        }
+        for (int i = 0; i < created.size(); i++) {
+            created.get(i).setCartItemId(((Number) result.get(i + 1)).intValue());
+        }
+        return updated;
+    }
+
+    @Override
+    public long countItems(Integer userId) {
+        return load(userId).items().size();
+    }
+
+    @Override
+    public void clear(Integer userId) {
+        Runnable clear = () -> redisTemplate.execute(CLEAR_SCRIPT, List.of(cartKey(userId), DIRTY_KEY),
+                String.valueOf(ttl.toMillis()), userId.toString());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear.run();
+                }
+            });
+        } else {
+            clear.run();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.redis.flush-interval:5000}")
+    public void flushDirtyCarts() {
+        List<String> userIds = redisTemplate.opsForSet().pop(DIRTY_KEY, FLUSH_BATCH);
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        int failed = 0;
+        for (String userId : userIds) {
+            try {
+                persist(Integer.valueOf(userId));
+            } catch (Exception e) {
+                failed++;
+                redisTemplate.opsForSet().add(DIRTY_KEY, userId);
+                log.warn("Failed to persist cart of user {}: {}", userId, e.getMessage());
+            }
+        }
+        log.debug("Persisted {} carts, {} failed", userIds.size() - failed, failed);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        Long pending = redisTemplate.opsForSet().size(DIRTY_KEY);
+        while (pending != null && pending > 0) {
+            flushDirtyCarts();
+            Long remaining = redisTemplate.opsForSet().size(DIRTY_KEY);
+            if (remaining == null || remaining >= pending) {
+                break;
+            }
+            pending = remaining;
+        }
+    }
+
+    private void persist(Integer userId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(cartKey(userId));
+        if (entries.isEmpty()) {
+            return;
+        }
+        CartState state = parse(entries);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (state.cartId() == null) {
+                cartPersistenceRepository.deleteCarts(userId);
+            } else {
+                cartPersistenceRepository.saveCart(userId, state.cartId(), state.items());
+            }
+        });
+    }
+
+    private CartState load(Integer userId) {
+        String key = cartKey(userId);
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+        if (entries.isEmpty()) {
+            hydrate(userId);
+            entries = redisTemplate.opsForHash().entries(key);
+        }
+        return parse(entries);
+    }
+
+    private void hydrate(Integer userId) {
+        Optional<Cart> cart = cartRepository.findByUserId(userId);
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttl.toMillis()));
+        args.add(CART_ID_FIELD);
+        args.add(cart.map(c -> c.getCartId().toString()).orElse(NO_CART));
+        if (cart.isPresent()) {
+            int seq = 0;
+            for (CartItem item : cartItemRepository.findByCartId(cart.get().getCartId())) {
+                args.add(ITEM_PREFIX + item.getCartItemId());
+                args.add(write(item));
+                seq = Math.max(seq, item.getCartItemId());
+            }
+            args.add(SEQ_FIELD);
+            args.add(String.valueOf(seq));
+        }
+        redisTemplate.execute(HYDRATE_SCRIPT, List.of(cartKey(userId)), args.toArray());
+    }
+
+    private CartState parse(Map<Object, Object> entries) {
+        Object rawCartId = entries.get(CART_ID_FIELD);
+        Integer cartId = rawCartId == null || NO_CART.equals(rawCartId) ? null : Integer.valueOf(rawCartId.toString());
+        List<CartItem> items = new ArrayList<>();
+        if (cartId != null) {
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                String field = entry.getKey().toString();
+                if (field.startsWith(ITEM_PREFIX)) {
+                    items.add(read(cartId, Integer.valueOf(field.substring(ITEM_PREFIX.length())),
+                            entry.getValue().toString()));
+                }
+            }
+            items.sort(Comparator.comparing(CartItem::getCartItemId));
+        }
+        return new CartState(cartId, items);
+    }
+
+    private String write(CartItem item) {
+        try {
+            return objectMapper.writeValueAsString(
+                    new StoredItem(item.getBookId(), item.getType(), item.getRentalDays(), item.getAddedAt()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cart item", e);
+        }
+    }
+
+    private CartItem read(Integer cartId, Integer cartItemId, String json) {
+        try {
+            StoredItem stored = objectMapper.readValue(json, StoredItem.class);
+            CartItem item = new CartItem();
+            item.setCartItemId(cartItemId);
+            item.setCartId(cartId);
+            item.setBookId(stored.bookId());
+            item.setType(stored.type());
+            item.setRentalDays(stored.rentalDays());
+            item.setAddedAt(stored.addedAt());
+            return item;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read cart item " + cartItemId, e);
+        }
+    }
+
+    private static String cartKey(Integer userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.model.Author;
+import com.example.bookstore.model.Category;
+import com.example.bookstore.model.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.CategoryRepository;
+import com.example.bookstore.repository.GenreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class ReferenceDataCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "reference-data:invalidate";
+    private static final String CHANGED_AT_KEY = "reference-data:changed-at";
+
+    private static final RedisScript<Long> TOUCH_SCRIPT = new DefaultRedisScript<>("""
+            local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local now = tonumber(ARGV[1])
+            if now <= current then
+                now = current + 1
+            end
+            redis.call('SET', KEYS[1], now)
+            return now
+            """, Long.class);
+
+    public enum ReferenceType {
+        GENRE,
+        CATEGORY,
+        AUTHOR
+    }
+
+    private final GenreRepository genreRepository;
+    private final CategoryRepository categoryRepository;
+    private final AuthorRepository authorRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<ReferenceType, AtomicReference<Map<Integer, String>>> snapshots =
+            new EnumMap<>(ReferenceType.class);
+    private volatile Optional<LocalDateTime> changedAt;
+
+    public ReferenceDataCache(GenreRepository genreRepository,
+                              CategoryRepository categoryRepository,
+                              AuthorRepository authorRepository,
+                              StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer) {
+        this.genreRepository = genreRepository;
+        this.categoryRepository = categoryRepository;
+        this.authorRepository = authorRepository;
+        this.redisTemplate = redisTemplate;
+        for (ReferenceType type : ReferenceType.values()) {
+            snapshots.put(type, new AtomicReference<>());
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public String getGenreName(Integer genreId) {
+        return genreId == null ? null : snapshot(ReferenceType.GENRE).get(genreId);
+    }
+
+    public String getCategoryName(Integer categoryId) {
+        return categoryId == null ? null : snapshot(ReferenceType.CATEGORY).get(categoryId);
+    }
+
+    public String getAuthorName(Integer authorId) {
+        return authorId == null ? null : snapshot(ReferenceType.AUTHOR).get(authorId);
+    }
+
+    public Map<Integer, String> getGenreNames() {
+        return snapshot(ReferenceType.GENRE);
+    }
+
+    public Map<Integer, String> getCategoryNames() {
+        return snapshot(ReferenceType.CATEGORY);
+    }
+
+    public Map<Integer, String> getAuthorNames() {
+        return snapshot(ReferenceType.AUTHOR);
+    }
+
+    public LocalDateTime getChangedAt() {
+        Optional<LocalDateTime> current = changedAt;
+        if (current != null) {
+            return current.orElse(null);
+        }
+        current = sync();
+        return current != null ? current.orElse(null) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${reference-data.resync-interval:15000}")
+    public void resync() {
+        sync();
+    }
+
+    public void invalidate(ReferenceType type) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(type);
+                }
+            });
+        } else {
+            evictAndBroadcast(type);
+        }
+    }
+
+    public void invalidateAll() {
+        for (ReferenceType type : ReferenceType.values()) {
+            invalidate(type);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length == 2 && nodeId.equals(parts[1])) {
+            return;
+        }
+        try {
+            ReferenceType type = ReferenceType.valueOf(parts[0]);
+            evict(type);
+            changedAt = null;
+            log.debug("Evicted {} names after remote invalidation", type);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unknown reference data invalidation: {}", parts[0]);
+        }
+    }
+
+    /**
+     * Re-reads the shared changed-at marker and drops every snapshot when it moved, so a
+     * missed invalidation message cannot keep old names (or their ETag) alive.
+     */
+    private synchronized Optional<LocalDateTime> sync() {
+        Optional<LocalDateTime> latest;
+        try {
+            String stored = redisTemplate.opsForValue().get(CHANGED_AT_KEY);
+            latest = Optional.ofNullable(stored).map(millis -> toDateTime(Long.parseLong(millis)));
+        } catch (Exception e) {
+            log.warn("Failed to read reference data version: {}", e.getMessage());
+            return null;
+        }
+        if (!latest.equals(changedAt)) {
+            for (ReferenceType type : ReferenceType.values()) {
+                evict(type);
+            }
+            changedAt = latest;
+        }
+        return latest;
+    }
+
+    private Map<Integer, String> snapshot(ReferenceType type) {
+        AtomicReference<Map<Integer, String>> ref = snapshots.get(type);
+        Map<Integer, String> current = ref.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (ref) {
+            current = ref.get();
+            if (current == null) {
+                current = Collections.unmodifiableMap(load(type));
+                ref.set(current);
+            }
+            return current;
+        }
+    }
+
+    private Map<Integer, String> load(ReferenceType type) {
+        Map<Integer, String> names = new HashMap<>();
+        switch (type) {
+            case GENRE -> {
+                for (Genre genre : genreRepository.findAll()) {
+                    names.put(genre.getGenreId(), genre.getName());
+                }
+            }
+            case CATEGORY -> {
+                for (Category category : categoryRepository.findAll()) {
+                    names.put(category.getCategoryId(), category.getName());
+                }
+            }
+            case AUTHOR -> {
+                for (Author author : authorRepository.findAll()) {
+                    names.put(author.getAuthorId(), author.getFullName());
+                }
+            }
+        }
+        return names;
+    }
+
+    private void evict(ReferenceType type) {
+        AtomicReference<Map<Integer, String>> ref = snapshots.get(type);
+        synchronized (ref) {
+            ref.set(null);
+        }
+    }
+
+    private void evictAndBroadcast(ReferenceType type) {
+        evict(type);
+        try {
+            Long touched = redisTemplate.execute(TOUCH_SCRIPT, List.of(CHANGED_AT_KEY),
+                    String.valueOf(System.currentTimeMillis()));
+            changedAt = Optional.ofNullable(touched).map(ReferenceDataCache::toDateTime);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, type.name() + ":" + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast {} invalidation: {}", type, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.model.Admin;
+import com.example.bookstore.security.StaffPrincipal;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class StaffPrincipalCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StaffPrincipalCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "staff-principal:invalidate";
+    public static final String SESSION_ATTRIBUTE = "STAFF_PRINCIPAL";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Long> evictedAt = new ConcurrentHashMap<>();
+
+    public StaffPrincipalCache(StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               @Value("${admin.staff-principal.ttl:1m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public StaffPrincipal get(HttpSession session, String username) {
+        if (!(session.getAttribute(SESSION_ATTRIBUTE) instanceof StaffPrincipal principal)
+                || !principal.username().equals(username)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (principal.loadedAt() + ttl.toMillis() <= now
+                || principal.loadedAt() <= evictedAt.getOrDefault(username, 0L)) {
+            return null;
+        }
+        return principal;
+    }
+
+    public StaffPrincipal store(HttpSession session, Admin admin) {
+        StaffPrincipal principal = new StaffPrincipal(admin.getAdminId(), admin.getUsername(), admin.getRole(),
+                admin.getPickUpPointId(), System.currentTimeMillis());
+        session.setAttribute(SESSION_ATTRIBUTE, principal);
+        return principal;
+    }
+
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(username);
+                }
+            });
+        } else {
+            evictAndBroadcast(username);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0 || nodeId.equals(body.substring(separator + 1))) {
+            return;
+        }
+        evictLocal(body.substring(0, separator));
+    }
+
+    private void evictLocal(String username) {
+        long now = System.currentTimeMillis();
+        evictedAt.values().removeIf(evicted -> evicted + ttl.toMillis() <= now);
+        evictedAt.put(username, now);
+    }
+
+    private void evictAndBroadcast(String username) {
+        evictLocal(username);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, username + ":" + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast staff principal invalidation for {}: {}", username, e.getMessage());
+        }
+    }
+}
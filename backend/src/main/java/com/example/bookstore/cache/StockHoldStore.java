@@ -0,0 +1,314 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+@Component
+public class StockHoldStore {
+
+    private static final String KEY_PREFIX = "stock-holds:";
+    private static final long MISSING_STOCK = -2;
+    private static final long GRANTED = 1;
+    private static final int SEED_ATTEMPTS = 3;
+
+    private static final String PURGE_EXPIRED = """
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', ARGV[3])
+            for _, cart in ipairs(expired) do
+                redis.call('HDEL', KEYS[2], cart)
+            end
+            if #expired > 0 then
+                redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[3])
+            end
+            """;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> HOLD_SCRIPT = new DefaultRedisScript<>("""
+            local stock = redis.call('GET', KEYS[1])
+            if not stock then
+                return {-2, 0}
+            end
+            stock = tonumber(stock)
+            """ + PURGE_EXPIRED + """
+            local held = 0
+            for _, count in ipairs(redis.call('HVALS', KEYS[2])) do
+                held = held + tonumber(count)
+            end
+            local requested = tonumber(ARGV[5])
+            if held + requested > stock then
+                return {-1, stock - held, stock}
+            end
+            local ttl = tonumber(ARGV[6])
+            redis.call('HINCRBY', KEYS[2], ARGV[2], requested)
+            redis.call('ZADD', KEYS[3], ARGV[4], ARGV[2])
+            redis.call('SADD', KEYS[4], ARGV[1])
+            redis.call('PEXPIRE', KEYS[2], ttl)
+            redis.call('PEXPIRE', KEYS[3], ttl)
+            redis.call('PEXPIRE', KEYS[4], ttl)
+            return {1, stock - held - requested, stock}
+            """, List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> AVAILABLE_SCRIPT = new DefaultRedisScript<>("""
+            local result = {}
+            for b = 1, #KEYS, 3 do
+                local stock = redis.call('GET', KEYS[b])
+                if not stock then
+                    table.insert(result, -2)
+                    table.insert(result, 0)
+                    table.insert(result, 0)
+                else
+                    local expired = redis.call('ZRANGEBYSCORE', KEYS[b + 2], '-inf', ARGV[2])
+                    for _, cart in ipairs(expired) do
+                        redis.call('HDEL', KEYS[b + 1], cart)
+                    end
+                    if #expired > 0 then
+                        redis.call('ZREMRANGEBYSCORE', KEYS[b + 2], '-inf', ARGV[2])
+                    end
+                    local others = 0
+                    local own = 0
+                    local holds = redis.call('HGETALL', KEYS[b + 1])
+                    for i = 1, #holds, 2 do
+                        if holds[i] == ARGV[1] then
+                            own = tonumber(holds[i + 1])
+                        else
+                            others = others + tonumber(holds[i + 1])
+                        end
+                    end
+                    table.insert(result, tonumber(stock))
+                    table.insert(result, others)
+                    table.insert(result, own)
+                end
+            end
+            return result
+            """, List.class);
+
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            local seeded = 0
+            for b = 1, #KEYS, 2 do
+                if (redis.call('GET', KEYS[b + 1]) or '0') == ARGV[b]
+                        and redis.call('SET', KEYS[b], ARGV[b + 1], 'PX', ARGV[#ARGV], 'NX') then
+                    seeded = seeded + 1
+                end
+            end
+            return seeded
+            """, Long.class);
+
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            local epoch = redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return epoch
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local remaining = redis.call('HINCRBY', KEYS[2], ARGV[2], -tonumber(ARGV[3]))
+            if remaining <= 0 then
+                redis.call('HDEL', KEYS[2], ARGV[2])
+                redis.call('ZREM', KEYS[3], ARGV[2])
+                redis.call('SREM', KEYS[4], ARGV[1])
+            end
+            return remaining
+            """, Long.class);
+
+    public record Hold(boolean granted, int available, int stock) {}
+
+    public record Availability(int stock, int heldByOthers, int heldByCart) {
+        public int availableForCart() {
+            return stock - heldByOthers;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final StockReservationRepository stockReservationRepository;
+    private final Duration ttl;
+    private final Duration stockTtl;
+
+    public StockHoldStore(StringRedisTemplate redisTemplate,
+                          StockReservationRepository stockReservationRepository,
+                          @Value("${cart.hold-ttl:20m}") Duration ttl,
+                          @Value("${cart.hold-stock-ttl:1m}") Duration stockTtl) {
+        this.redisTemplate = redisTemplate;
+        this.stockReservationRepository = stockReservationRepository;
+        this.ttl = ttl;
+        this.stockTtl = stockTtl;
+    }
+
+    public Hold hold(Integer bookId, Integer cartId) {
+        return hold(bookId, cartId, 1);
+    }
+
+    public Hold hold(Integer bookId, Integer cartId, int count) {
+        long now = System.currentTimeMillis();
+        List<?> result = execute(HOLD_SCRIPT, bookId, cartId, String.valueOf(now),
+                String.valueOf(now + ttl.toMillis()), String.valueOf(count), String.valueOf(ttl.toMillis()));
+        boolean granted = ((Number) result.get(0)).longValue() == GRANTED;
+        if (granted) {
+            releaseOnRollback(bookId, cartId, count);
+        }
+        return new Hold(granted, ((Number) result.get(1)).intValue(), ((Number) result.get(2)).intValue());
+    }
+
+    public Availability availability(Integer bookId, Integer cartId) {
+        return availability(List.of(bookId), cartId).get(bookId);
+    }
+
+    public Map<Integer, Availability> availability(Collection<Integer> bookIds, Integer cartId) {
+        List<Integer> pending = new ArrayList<>(new TreeSet<>(bookIds));
+        Map<Integer, Availability> result = new HashMap<>();
+        for (int attempt = 0; attempt < SEED_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            List<String> keys = new ArrayList<>(pending.size() * 3);
+            for (Integer bookId : pending) {
+                String book = bookId.toString();
+                keys.add(stockKey(book));
+                keys.add(holdsKey(book));
+                keys.add(expiryKey(book));
+            }
+            List<?> values = redisTemplate.execute(AVAILABLE_SCRIPT, keys, cartId.toString(),
+                    String.valueOf(System.currentTimeMillis()));
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                long stock = ((Number) values.get(i * 3)).longValue();
+                if (stock == MISSING_STOCK) {
+                    missing.add(pending.get(i));
+                } else {
+                    result.put(pending.get(i), new Availability((int) stock,
+                            ((Number) values.get(i * 3 + 1)).intValue(), ((Number) values.get(i * 3 + 2)).intValue()));
+                }
+            }
+            if (!missing.isEmpty()) {
+                seedStock(missing);
+            }
+            pending = missing;
+        }
+        if (!pending.isEmpty()) {
+            throw new TransientDataAccessResourceException("Stock for books " + pending + " kept changing while seeding holds");
+        }
+        return result;
+    }
+
+    public void release(Integer bookId, Integer cartId) {
+        release(bookId, cartId, 1);
+    }
+
+    public void release(Integer bookId, Integer cartId, int count) {
+        afterCommit(() -> releaseNow(bookId, cartId, count));
+    }
+
+    public void releaseCart(Integer cartId) {
+        afterCommit(() -> {
+            String cartKey = cartKey(cartId);
+            Set<String> bookIds = redisTemplate.opsForSet().members(cartKey);
+            if (bookIds != null) {
+                for (String bookId : bookIds) {
+                    redisTemplate.opsForHash().delete(holdsKey(bookId), cartId.toString());
+                    redisTemplate.opsForZSet().remove(expiryKey(bookId), cartId.toString());
+                }
+            }
+            redisTemplate.delete(cartKey);
+        });
+    }
+
+    public void evictStock(Integer bookId) {
+        String book = bookId.toString();
+        afterCommit(() -> redisTemplate.execute(EVICT_SCRIPT, List.of(stockKey(book), epochKey(book)),
+                String.valueOf(Duration.ofDays(1).toMillis())));
+    }
+
+    private List<?> execute(RedisScript<List> script, Integer bookId, Integer cartId, String... args) {
+        String book = bookId.toString();
+        List<String> keys = List.of(stockKey(book), holdsKey(book), expiryKey(book), cartKey(cartId));
+        Object[] argv = new Object[args.length + 2];
+        argv[0] = book;
+        argv[1] = cartId.toString();
+        System.arraycopy(args, 0, argv, 2, args.length);
+
+        for (int attempt = 0; attempt < SEED_ATTEMPTS; attempt++) {
+            List<?> result = redisTemplate.execute(script, keys, argv);
+            if (((Number) result.get(0)).longValue() != MISSING_STOCK) {
+                return result;
+            }
+            seedStock(List.of(bookId));
+        }
+        throw new TransientDataAccessResourceException("Stock for book " + bookId + " kept changing while seeding holds");
+    }
+
+    private void seedStock(List<Integer> bookIds) {
+        List<String> epochKeys = bookIds.stream().map(id -> epochKey(id.toString())).toList();
+        List<String> epochs = redisTemplate.opsForValue().multiGet(epochKeys);
+        Map<Integer, Integer> stock = stockReservationRepository.findStock(bookIds);
+        List<String> keys = new ArrayList<>(bookIds.size() * 2);
+        List<String> args = new ArrayList<>(bookIds.size() * 2 + 1);
+        for (int i = 0; i < bookIds.size(); i++) {
+            Integer bookId = bookIds.get(i);
+            keys.add(stockKey(bookId.toString()));
+            keys.add(epochKeys.get(i));
+            args.add(epochs == null ? "0" : Objects.requireNonNullElse(epochs.get(i), "0"));
+            args.add(String.valueOf(stock.getOrDefault(bookId, 0)));
+        }
+        args.add(String.valueOf(stockTtl.toMillis()));
+        redisTemplate.execute(SEED_SCRIPT, keys, args.toArray());
+    }
+
+    private void releaseNow(Integer bookId, Integer cartId, int count) {
+        String book = bookId.toString();
+        redisTemplate.execute(RELEASE_SCRIPT,
+                List.of(stockKey(book), holdsKey(book), expiryKey(book), cartKey(cartId)),
+                book, cartId.toString(), String.valueOf(count));
+    }
+
+    private void releaseOnRollback(Integer bookId, Integer cartId, int count) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        releaseNow(bookId, cartId, count);
+                    }
+                }
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String stockKey(String bookId) {
+        return KEY_PREFIX + "stock:" + bookId;
+    }
+
+    private static String epochKey(String bookId) {
+        return KEY_PREFIX + "epoch:" + bookId;
+    }
+
+    private static String holdsKey(String bookId) {
+        return KEY_PREFIX + "book:" + bookId;
+    }
+
+    private static String expiryKey(String bookId) {
+        return KEY_PREFIX + "expiry:" + bookId;
+    }
+
+    private static String cartKey(Integer cartId) {
+        return KEY_PREFIX + "cart:" + cartId;
+    }
+}
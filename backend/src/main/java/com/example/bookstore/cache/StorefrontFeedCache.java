@@ -0,0 +1,260 @@
+package com.example.bookstore.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class StorefrontFeedCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StorefrontFeedCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "storefront-feed:invalidate";
+    private static final String KEY_PREFIX = "storefront-feed:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+
+    public enum Feed {
+        DISCOUNTS,
+        NEW,
+        BESTSELLERS_WEEK,
+        BESTSELLERS_MONTH
+    }
+
+    private record NearEntry(long generation, Map<String, Object> page, long expiresAt) {}
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader pageReader;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration nearTtl;
+    private final int nearMaxSize;
+    private final int maxCachedPage;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, NearEntry> nearCache = new ConcurrentHashMap<>();
+    private final Map<Feed, Long> generations = new ConcurrentHashMap<>();
+
+    public StorefrontFeedCache(StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               RedisMessageListenerContainer listenerContainer,
+                               @Value("${storefront.feed-cache.ttl:10m}") Duration ttl,
+                               @Value("${storefront.feed-cache.near-ttl:30s}") Duration nearTtl,
+                               @Value("${storefront.feed-cache.near-max-size:500}") int nearMaxSize,
+                               @Value("${storefront.feed-cache.max-cached-page:10}") int maxCachedPage) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.pageReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {})
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.nearTtl = nearTtl;
+        this.nearMaxSize = nearMaxSize;
+        this.maxCachedPage = maxCachedPage;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public Map<String, Object> get(Feed feed, int page, int size, Supplier<Map<String, Object>> loader) {
+        if (page > maxCachedPage) {
+            record(feed, "bypass");
+            return loader.get();
+        }
+        String localKey = feed.name() + ":" + page + ":" + size;
+        long now = System.currentTimeMillis();
+        long currentGeneration = currentGeneration(feed);
+
+        NearEntry near = nearCache.get(localKey);
+        if (near != null && near.generation() == currentGeneration && near.expiresAt() > now) {
+            record(feed, "near_hit");
+            return near.page();
+        }
+
+        String redisKey = KEY_PREFIX + currentGeneration + ":" + localKey;
+        Map<String, Object> cached = readFromRedis(redisKey);
+        if (cached != null) {
+            record(feed, "redis_hit");
+            putNear(localKey, new NearEntry(currentGeneration, cached, now + nearTtl.toMillis()), now);
+            return cached;
+        }
+
+        record(feed, "miss");
+        Map<String, Object> loaded = loader.get();
+        writeToRedis(feed, currentGeneration, redisKey, loaded);
+        putNear(localKey, new NearEntry(currentGeneration, loaded, now + nearTtl.toMillis()), now);
+        return loaded;
+    }
+
+    public void invalidate(Feed... feeds) {
+        Set<Feed> affected = feeds.length == 0 ? EnumSet.allOf(Feed.class) : EnumSet.copyOf(Arrays.asList(feeds));
+        afterCommit(() -> bumpGenerations(affected));
+    }
+
+    public void invalidateBooks(Collection<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> ids = Set.copyOf(bookIds);
+        afterCommit(() -> bumpGenerations(feedsContaining(ids)));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length == 2 && nodeId.equals(parts[1])) {
+            return;
+        }
+        try {
+            clearLocal(Feed.valueOf(parts[0]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unknown storefront feed invalidation: {}", parts[0]);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private long currentGeneration(Feed feed) {
+        Long current = generations.get(feed);
+        if (current != null) {
+            return current;
+        }
+        try {
+            String stored = redisTemplate.opsForValue().get(generationKey(feed));
+            current = stored != null ? Long.parseLong(stored) : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to read storefront feed generation: {}", e.getMessage());
+            return 0L;
+        }
+        generations.put(feed, current);
+        return current;
+    }
+
+    private Set<Feed> feedsContaining(Set<Integer> bookIds) {
+        Object[] members = bookIds.stream().map(String::valueOf).toArray();
+        Set<Feed> affected = EnumSet.noneOf(Feed.class);
+        for (Feed feed : Feed.values()) {
+            try {
+                Map<Object, Boolean> present = redisTemplate.opsForSet()
+                        .isMember(membersKey(feed, currentGeneration(feed)), members);
+                if (present != null && present.containsValue(Boolean.TRUE)) {
+                    affected.add(feed);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to read storefront feed members for {}: {}", feed, e.getMessage());
+                affected.add(feed);
+            }
+        }
+        return affected;
+    }
+
+    private Map<String, Object> readFromRedis(String key) {
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            return json != null ? pageReader.readValue(json) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read storefront feed {} from Redis: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(Feed feed, long generation, String key, Map<String, Object> page) {
+        try {
+            String[] bookIds = bookIds(page);
+            if (bookIds.length > 0) {
+                String membersKey = membersKey(feed, generation);
+                redisTemplate.opsForSet().add(membersKey, bookIds);
+                redisTemplate.expire(membersKey, ttl);
+            }
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(page), ttl);
+        } catch (Exception e) {
+            log.warn("Failed to write storefront feed {} to Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private String[] bookIds(Map<String, Object> page) {
+        JsonNode books = objectMapper.valueToTree(page.get("books"));
+        List<String> ids = new ArrayList<>();
+        if (books != null) {
+            for (JsonNode book : books) {
+                if (book.hasNonNull("bookId")) {
+                    ids.add(book.get("bookId").asText());
+                }
+            }
+        }
+        return ids.toArray(String[]::new);
+    }
+
+    private void bumpGenerations(Set<Feed> feeds) {
+        for (Feed feed : feeds) {
+            try {
+                Long next = redisTemplate.opsForValue().increment(generationKey(feed));
+                clearLocal(feed);
+                generations.put(feed, next);
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, feed.name() + ":" + nodeId);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate storefront feed {} in Redis: {}", feed, e.getMessage());
+                clearLocal(feed);
+            }
+        }
+    }
+
+    private void putNear(String key, NearEntry entry, long now) {
+        if (nearCache.size() >= nearMaxSize) {
+            nearCache.values().removeIf(near -> near.expiresAt() <= now);
+            Iterator<String> keys = nearCache.keySet().iterator();
+            while (nearCache.size() >= nearMaxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        nearCache.put(key, entry);
+    }
+
+    private void clearLocal(Feed feed) {
+        generations.remove(feed);
+        nearCache.keySet().removeIf(key -> key.startsWith(feed.name() + ":"));
+    }
+
+    private static String generationKey(Feed feed) {
+        return GENERATION_KEY + ":" + feed.name().toLowerCase();
+    }
+
+    private static String membersKey(Feed feed, long generation) {
+        return KEY_PREFIX + "members:" + feed.name().toLowerCase() + ":" + generation;
+    }
+
+    private void record(Feed feed, String result) {
+        meterRegistry.counter("storefront.feed.cache", "feed", feed.name().toLowerCase(), "result", result)
+                .increment();
+    }
+}
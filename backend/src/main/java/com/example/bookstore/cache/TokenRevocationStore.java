@@ -0,0 +1,185 @@
+package com.example.bookstore.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class TokenRevocationStore implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    public static final String REVOCATION_CHANNEL = "revoked-token:added";
+    private static final String KEY_PREFIX = "revoked-token:";
+    private static final int SCAN_BATCH = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    public TokenRevocationStore(StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry,
+                                RedisMessageListenerContainer listenerContainer,
+                                @Value("${auth.revocation.expected-tokens:100000}") int expectedTokens,
+                                @Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+    }
+
+    public void revoke(String jwtToken, Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        String tokenId = tokenId(jwtToken);
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", remaining);
+        addLocal(tokenId);
+        try {
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, tokenId + ":" + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast token revocation: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(String jwtToken) {
+        String tokenId = tokenId(jwtToken);
+        if (!filter.mightContain(tokenId)) {
+            record("filter_negative");
+            return false;
+        }
+        try {
+            boolean revoked = Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+            record(revoked ? "revoked" : "false_positive");
+            return revoked;
+        } catch (Exception e) {
+            log.warn("Failed to check token revocation, rejecting token: {}", e.getMessage());
+            record("error");
+            return true;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length == 2 && nodeId.equals(parts[1])) {
+            return;
+        }
+        addLocal(parts[0]);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${auth.revocation.rebuild-interval:600000}",
+            fixedDelayString = "${auth.revocation.rebuild-interval:600000}")
+    public void rebuild() {
+        log.info("Starting scheduled task: rebuild token revocation filter");
+        BloomFilter next = new BloomFilter(expectedTokens, falsePositiveRate);
+        rebuilding = next;
+        long count = 0;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(KEY_PREFIX + "*").count(SCAN_BATCH).build())) {
+            while (keys.hasNext()) {
+                next.add(keys.next().substring(KEY_PREFIX.length()));
+                count++;
+            }
+        } catch (Exception e) {
+            rebuilding = null;
+            log.warn("Failed to rebuild token revocation filter: {}", e.getMessage());
+            return;
+        }
+        if (count > expectedTokens) {
+            log.warn("{} revoked tokens exceed the expected {}, filter accuracy is degraded", count, expectedTokens);
+        }
+        filter = next;
+        rebuilding = null;
+        log.info("Scheduled task completed: {} revoked tokens loaded", count);
+    }
+
+    private void addLocal(String tokenId) {
+        filter.add(tokenId);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(tokenId);
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("auth.revocation.check", "result", result).increment();
+    }
+
+    static String tokenId(String jwtToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwtToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((Math.max(size, 64) + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        }
+
+        void add(String tokenId) {
+            long h1 = Long.parseUnsignedLong(tokenId, 0, 16, 16);
+            long h2 = Long.parseUnsignedLong(tokenId, 16, 32, 16);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(index);
+                } while ((current & mask) == 0 && !words.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String tokenId) {
+            long h1 = Long.parseUnsignedLong(tokenId, 0, 16, 16);
+            long h2 = Long.parseUnsignedLong(tokenId, 16, 32, 16);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -8,7 +8,13 @@ public class PasswordUtils {
     public static String hashPassword(String password) {
         return BCrypt.hashpw(password, BCrypt.gensalt());
     }
+    public static String hashPassword(String password, int cost) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
     public static boolean checkPassword(String password, String storedHash) {
         return BCrypt.checkpw(password, storedHash);
     }
+    public static int costOf(String storedHash) {
+        return Integer.parseInt(storedHash.substring(4, 6));
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.bookstore.config;
+
+import com.example.bookstore.security.AuthenticatedClientArgumentResolver;
+import com.example.bookstore.security.RateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final AuthenticatedClientArgumentResolver authenticatedClientArgumentResolver;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public WebMvcConfig(AuthenticatedClientArgumentResolver authenticatedClientArgumentResolver,
+                        RateLimitInterceptor rateLimitInterceptor) {
+        this.authenticatedClientArgumentResolver = authenticatedClientArgumentResolver;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(authenticatedClientArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor);
+        registry.addInterceptor(rateLimitInterceptor.forPolicy("catalog")).addPathPatterns("/api/catalog/**");
+    }
+}
@@ -3,7 +3,7 @@ package com.example.bookstore.controller;
 import com.example.bookstore.dto.AnalyticsOverallDto;
 import com.example.bookstore.dto.AnalyticsPeriodDto;
 import com.example.bookstore.dto.AnalyticsPickupPointDto;
-import com.example.bookstore.model.Admin;
+import com.example.bookstore.security.StaffPrincipal;
 import com.example.bookstore.service.AdminAnalyticsPickupPointService;
 import com.example.bookstore.service.AdminAnalyticsService;
 import com.example.bookstore.service.AdminAuthService;
@@ -45,7 +45,7 @@ public class AdminAnalyticsController {
     public ResponseEntity<AnalyticsPickupPointDto> getPickupPointStats(
             @RequestParam int pickupPointId,
             HttpSession session) {
-        Admin admin = adminAuthService.requireStaffAccess(session);
+        StaffPrincipal admin = adminAuthService.requireStaffAccess(session);
         return ResponseEntity.ok(pickupPointService.getStats(pickupPointId, admin));
     }
 }
@@ -1,6 +1,7 @@
 package com.example.bookstore.controller;
 
 import com.example.bookstore.dto.AdminDto;
+import com.example.bookstore.security.RateLimited;
 import com.example.bookstore.service.AdminAuthService;
 import com.example.bookstore.exception.ValidationException;
 import com.example.bookstore.exception.NotFoundException;
@@ -26,6 +27,7 @@ public class AdminAuthController {
     }
 
     @PostMapping("/login")
+    @RateLimited(value = "admin-login", keyParameter = "username", keyPolicy = "admin-login-user")
     public ResponseEntity<Map<String, String>> login(@RequestParam String username,
                                                      @RequestParam String password,
                                                      HttpServletRequest request) {
@@ -53,6 +55,7 @@ public class AdminAuthController {
     }
 
     @PostMapping("/2fa-verify")
+    @RateLimited(value = "admin-2fa", keyParameter = "username", keyPolicy = "admin-2fa-user")
     public ResponseEntity<Map<String, String>> verify(@RequestParam String username,
                                                       @RequestParam String code,
                                                       HttpSession session) {
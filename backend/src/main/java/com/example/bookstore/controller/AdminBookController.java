@@ -3,16 +3,23 @@ package com.example.bookstore.controller;
 import com.example.bookstore.dto.AdminBookDto;
 import com.example.bookstore.dto.BookDto;
 import com.example.bookstore.dto.UpdateBookDto;
+import com.example.bookstore.enums.CatalogFileFormat;
 import com.example.bookstore.exception.BookUpdateException;
 import com.example.bookstore.exception.NotFoundException;
 import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.exception.ValidationException;
 import com.example.bookstore.service.AdminAuthService;
+import com.example.bookstore.service.BookExportService;
+import com.example.bookstore.service.BookImportService;
 import com.example.bookstore.service.BookService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import java.util.Map;
 
@@ -22,10 +29,15 @@ public class AdminBookController {
 
     private final AdminAuthService adminAuthService;
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
 
-    public AdminBookController(AdminAuthService adminAuthService, BookService bookService) {
+    public AdminBookController(AdminAuthService adminAuthService, BookService bookService,
+                               BookImportService bookImportService, BookExportService bookExportService) {
         this.adminAuthService = adminAuthService;
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
     }
 
     @GetMapping()
@@ -109,4 +121,63 @@ public class AdminBookController {
                     .body(Map.of("message", "Unexpected error during book creation"));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importBooks(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request,
+            HttpSession session) {
+
+        try {
+            adminAuthService.requireAdminRole(session);
+
+            String contentType = request.getContentType();
+            boolean csv = format != null
+                    ? "csv".equalsIgnoreCase(format)
+                    : contentType != null && contentType.toLowerCase().contains("csv");
+            CatalogFileFormat importFormat = csv ? CatalogFileFormat.CSV : CatalogFileFormat.NDJSON;
+
+            Map<String, Object> result = bookImportService.importBooks(request.getInputStream(), importFormat);
+            return ResponseEntity.ok(result);
+
+        } catch (ValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage()));
+
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", e.getMessage()));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Unexpected error during book import"));
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportBooks(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            HttpSession session) {
+
+        try {
+            adminAuthService.requireAdminRole(session);
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", e.getMessage()));
+        }
+
+        CatalogFileFormat exportFormat = "csv".equalsIgnoreCase(format)
+                ? CatalogFileFormat.CSV
+                : CatalogFileFormat.NDJSON;
+        MediaType mediaType = exportFormat == CatalogFileFormat.CSV
+                ? new MediaType("text", "csv")
+                : new MediaType("application", "x-ndjson");
+        String fileName = exportFormat == CatalogFileFormat.CSV ? "catalog.csv" : "catalog.ndjson";
+
+        StreamingResponseBody body = output -> bookExportService.exportBooks(output, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
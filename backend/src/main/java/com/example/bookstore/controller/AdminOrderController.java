@@ -4,7 +4,7 @@ import com.example.bookstore.dto.OrderAdminSummaryDto;
 import com.example.bookstore.dto.OrderDetailDto;
 import com.example.bookstore.enums.ItemStatus;
 import com.example.bookstore.enums.OrderStatus;
-import com.example.bookstore.model.Admin;
+import com.example.bookstore.security.StaffPrincipal;
 import com.example.bookstore.model.OrderItem;
 import com.example.bookstore.model.Orders;
 import com.example.bookstore.service.AdminAuthService;
@@ -39,7 +39,7 @@ public class AdminOrderController {
             @RequestParam(defaultValue = "20") int size,
             HttpSession session) {
 
-        Admin admin = adminAuthService.requireStaffAccess(session);
+        StaffPrincipal admin = adminAuthService.requireStaffAccess(session);
 
         Page<OrderAdminSummaryDto> orders = orderService.getAdminOrders(
                 orderId,
@@ -60,7 +60,7 @@ public class AdminOrderController {
             @PathVariable Integer orderId,
             HttpSession session) {
 
-        Admin admin = adminAuthService.requireStaffAccess(session);
+        StaffPrincipal admin = adminAuthService.requireStaffAccess(session);
         OrderDetailDto orderDetails = orderService.getOrderDetailsForAdmin(orderId, admin);
 
         return ResponseEntity.ok(orderDetails);
@@ -73,7 +73,7 @@ public class AdminOrderController {
             @RequestBody Map<String, String> payload,
             HttpSession session) {
 
-        Admin admin = adminAuthService.requireStaffAccess(session);
+        StaffPrincipal admin = adminAuthService.requireStaffAccess(session);
 
         String statusString = payload.get("status");
         if (statusString == null || statusString.trim().isEmpty()) {
@@ -98,7 +98,7 @@ public class AdminOrderController {
             @RequestBody Map<String, String> payload,
             HttpSession session) {
 
-        Admin admin = adminAuthService.requireStaffAccess(session);
+        StaffPrincipal admin = adminAuthService.requireStaffAccess(session);
 
         String statusString = payload.get("status");
         if (statusString == null || statusString.trim().isEmpty()) {
@@ -1,15 +1,21 @@
 package com.example.bookstore.controller;
 
+import com.example.bookstore.cache.ReferenceDataCache;
 import com.example.bookstore.dto.ReferenceDto;
 import com.example.bookstore.enums.ItemStatus;
+import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.service.*;
 import com.example.bookstore.enums.OrderStatus;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Arrays;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/references")
@@ -20,17 +26,23 @@ public class AdminReferenceController {
     private final GenreService genreService;
     private final AuthorService authorService;
     private final PickUpPointService pickUpPointService;
+    private final AdminAuthService adminAuthService;
+    private final ReferenceDataCache referenceDataCache;
 
     public AdminReferenceController(CategoryGenreService categoryGenreService,
                                     CategoryService categoryService,
                                     GenreService genreService,
                                     AuthorService authorService,
-                                    PickUpPointService pickUpPointService) {
+                                    PickUpPointService pickUpPointService,
+                                    AdminAuthService adminAuthService,
+                                    ReferenceDataCache referenceDataCache) {
         this.categoryGenreService = categoryGenreService;
         this.categoryService = categoryService;
         this.genreService = genreService;
         this.authorService = authorService;
         this.pickUpPointService = pickUpPointService;
+        this.adminAuthService = adminAuthService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @GetMapping
@@ -45,4 +57,22 @@ public class AdminReferenceController {
         dto.setItemStatuses(Arrays.asList(ItemStatus.values()));
         return ResponseEntity.ok(dto);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshReferenceCache(HttpSession session) {
+        try {
+            adminAuthService.requireAdminRole(session);
+
+            referenceDataCache.invalidateAll();
+            return ResponseEntity.ok(Map.of("message", "Reference data cache refreshed"));
+
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", e.getMessage()));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Unexpected error during reference cache refresh"));
+        }
+    }
+}
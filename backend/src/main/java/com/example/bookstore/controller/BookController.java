@@ -1,24 +1,46 @@
 package com.example.bookstore.controller;
 
+import com.example.bookstore.cache.BestsellerRanking;
+import com.example.bookstore.cache.CatalogSuggestIndex;
+import com.example.bookstore.cache.ReferenceDataCache;
 import com.example.bookstore.dto.BookDto;
 import com.example.bookstore.dto.BookDetailDto;
+import com.example.bookstore.exception.ValidationException;
+import com.example.bookstore.model.Book;
+import com.example.bookstore.record.BookRatingSummary;
+import com.example.bookstore.record.CatalogSelection;
+import com.example.bookstore.service.CatalogValidators;
+import com.example.bookstore.service.BookSearchService;
 import com.example.bookstore.service.BookService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/catalog")
 public class BookController {
 
     private final BookService bookService;
+    private final BookSearchService bookSearchService;
+    private final CatalogSuggestIndex catalogSuggestIndex;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookSearchService bookSearchService,
+                          CatalogSuggestIndex catalogSuggestIndex, ReferenceDataCache referenceDataCache) {
         this.bookService = bookService;
+        this.bookSearchService = bookSearchService;
+        this.catalogSuggestIndex = catalogSuggestIndex;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @GetMapping("/books")
@@ -28,33 +50,101 @@ public class BookController {
             @RequestParam(required = false) String title,
             @RequestParam(required = false, defaultValue = "asc") String sort,
             @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "9") int size,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+
+        if (page < 0) page = 0;
+        if (size < 1 || size > 100) size = 9;
+
+        CatalogSelection selection = bookService.selectCatalog(genres, categories, title);
+        Map<String, Object> facets = selection.facets();
+
+        if (after != null) {
+            try {
+                List<Book> books = bookService.findBooksAfter(selection, sort, after, size);
+                if (request.checkNotModified(CatalogValidators.etag(books, facets, referenceDataCache.getChangedAt()))) {
+                    return null;
+                }
+                Map<String, Object> result = bookService.toKeysetResponse(books, size);
+                result.put("facets", facets);
+                return ResponseEntity.ok(result);
+            } catch (ValidationException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("message", e.getMessage()));
+            }
+        }
+
+        Page<Book> bookPage = bookService.findBooksPage(selection, sort, page, size);
+        if (request.checkNotModified(CatalogValidators.etag(bookPage.getContent(), bookPage.getTotalElements(), facets,
+                referenceDataCache.getChangedAt()))) {
+            return null;
+        }
+
+        Map<String, Object> result = bookService.toPageResponse(bookPage);
+        result.put("facets", facets);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "9") int size) {
 
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Search query is required"));
+        }
         if (page < 0) page = 0;
         if (size < 1 || size > 100) size = 9;
 
-        Map<String, Object> result = bookService.getBooks(genres, categories, title, sort, page, size);
+        Map<String, Object> result = bookSearchService.search(q, page, size);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false, defaultValue = "8") int limit) {
+
+        if (limit < 1 || limit > CatalogSuggestIndex.MAX_SUGGESTIONS) limit = 8;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("query", q != null ? q : "");
+        result.put("suggestions", catalogSuggestIndex.suggest(q, limit));
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/books/{id}")
-    public ResponseEntity<BookDto> getBookById(@PathVariable Integer id) {
-        BookDto book = bookService.getBookByIdForCatalog(id);
-        if (book != null) {
-            return ResponseEntity.ok(book);
-        } else {
+    public ResponseEntity<BookDto> getBookById(@PathVariable Integer id, WebRequest request) {
+        Optional<Book> book = bookService.findBook(id);
+        if (book.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        LocalDateTime referenceChangedAt = referenceDataCache.getChangedAt();
+        String etag = CatalogValidators.etag(List.of(book.get()), referenceChangedAt);
+        if (request.checkNotModified(etag, CatalogValidators.lastModified(book.get().getUpdatedAt(), referenceChangedAt))) {
+            return null;
+        }
+        return ResponseEntity.ok(bookService.toCatalogDto(book.get()));
     }
 
     @GetMapping("/books/{id}/details")
-    public ResponseEntity<BookDetailDto> getBookDetails(@PathVariable Integer id) {
-        BookDetailDto bookDetails = bookService.getBookDetailById(id);
-        if (bookDetails != null) {
-            return ResponseEntity.ok(bookDetails);
-        } else {
+    public ResponseEntity<BookDetailDto> getBookDetails(@PathVariable Integer id, WebRequest request) {
+        Optional<Book> book = bookService.findBook(id);
+        if (book.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        BookRatingSummary rating = bookService.getRatingSummary(id);
+        LocalDateTime referenceChangedAt = referenceDataCache.getChangedAt();
+        String etag = CatalogValidators.etag(List.of(book.get()), rating.updatedAt(), referenceChangedAt);
+        long lastModified = CatalogValidators.lastModified(book.get().getUpdatedAt(), rating.updatedAt(),
+                referenceChangedAt);
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(bookService.toDetailDto(book.get(), rating));
     }
 
     @GetMapping("/books/discounts")
@@ -84,12 +174,16 @@ public class BookController {
     @GetMapping("/books/bestsellers")
     public ResponseEntity<Map<String, Object>> getBestsellers(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "9") int size) {
+            @RequestParam(required = false, defaultValue = "9") int size,
+            @RequestParam(required = false, defaultValue = "30") int days) {
 
         if (page < 0) page = 0;
         if (size < 1 || size > 100) size = 9;
+        BestsellerRanking.Window window = days <= BestsellerRanking.Window.WEEK.getDays()
+                ? BestsellerRanking.Window.WEEK
+                : BestsellerRanking.Window.MONTH;
 
-        Map<String, Object> result = bookService.getBestsellers(page, size);
+        Map<String, Object> result = bookService.getBestsellers(window, page, size);
         return ResponseEntity.ok(result);
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.example.bookstore.controller;
 
+import com.example.bookstore.dto.CartBatchRequest;
 import com.example.bookstore.dto.CartDto;
 import com.example.bookstore.model.CartItem;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
 import com.example.bookstore.service.CartService;
 import com.example.bookstore.dto.AddItemRequest;
 import com.example.bookstore.enums.ItemType;
@@ -26,10 +29,10 @@ public class CartController {
     }
 
     @PostMapping("/add")
-    public ResponseEntity<?> addItem(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> addItem(@AuthenticatedClient Client client,
                                      @RequestBody AddItemRequest request) {
         try {
-            CartItem item = cartService.addItem(token, request.getBookId(), request.getType(), request.getRentalDays());
+            CartItem item = cartService.addItem(client, request.getBookId(), request.getType(), request.getRentalDays());
             return ResponseEntity.ok(item);
         } catch (CartException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
@@ -42,11 +45,26 @@ public class CartController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@AuthenticatedClient Client client,
+                                        @RequestBody CartBatchRequest request) {
+        try {
+            CartDto cart = cartService.applyBatch(client, request.getOperations());
+            return ResponseEntity.ok(cart);
+        } catch (CartException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Unexpected error"));
+        }
+    }
+
     @DeleteMapping("/remove/{cartItemId}")
-    public ResponseEntity<?> removeItem(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> removeItem(@AuthenticatedClient Client client,
                                         @PathVariable Integer cartItemId) {
         try {
-            cartService.removeItem(token, cartItemId);
+            cartService.removeItem(client, cartItemId);
             return ResponseEntity.ok(Map.of("message", "Item removed successfully"));
         } catch (CartException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
@@ -58,9 +76,9 @@ public class CartController {
     }
 
     @DeleteMapping("/clear")
-    public ResponseEntity<?> clearCart(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> clearCart(@AuthenticatedClient Client client) {
         try {
-            cartService.clearCart(token);
+            cartService.clearCart(client);
             return ResponseEntity.ok(Map.of("message", "Cart cleared successfully"));
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
@@ -73,9 +91,9 @@ public class CartController {
 
 
     @GetMapping("/count")
-    public ResponseEntity<?> getCount(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getCount(@AuthenticatedClient Client client) {
         try {
-            Long count = cartService.countItems(token);
+            Long count = cartService.countItems(client);
             return ResponseEntity.ok(Map.of("count", count));
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
@@ -85,9 +103,9 @@ public class CartController {
     }
 
     @GetMapping("/items")
-    public ResponseEntity<?> getAllItems(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getAllItems(@AuthenticatedClient Client client) {
         try {
-            List<CartItem> items = cartService.getAllItems(token);
+            List<CartItem> items = cartService.getAllItems(client);
             return ResponseEntity.ok(items);
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
@@ -97,9 +115,9 @@ public class CartController {
     }
 
     @GetMapping("/contents")
-    public ResponseEntity<?> getCartContents(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getCartContents(@AuthenticatedClient Client client) {
         try {
-            CartDto cartContents = cartService.getCartContents(token);
+            CartDto cartContents = cartService.getCartContents(client);
             return ResponseEntity.ok(cartContents);
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
@@ -109,11 +127,11 @@ public class CartController {
     }
 
     @GetMapping("/check-availability")
-    public ResponseEntity<?> checkBookAvailability(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> checkBookAvailability(@AuthenticatedClient Client client,
                                                    @RequestParam Integer bookId,
                                                    @RequestParam String type) {
         try {
-            boolean available = cartService.isBookAvailable(token, bookId);
+            boolean available = cartService.isBookAvailable(client, bookId);
             return ResponseEntity.ok(Map.of("available", available));
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
@@ -3,8 +3,11 @@ package com.example.bookstore.controller;
 import com.example.bookstore.dto.ClientProfileDto;
 import com.example.bookstore.dto.LoginResponseDto;
 import com.example.bookstore.exception.NotFoundException;
+import com.example.bookstore.exception.TooManyAttemptsException;
 import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
+import com.example.bookstore.security.RateLimited;
 import com.example.bookstore.service.ClientService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +28,7 @@ public class ClientController {
     }
 
     @PostMapping("/login")
+    @RateLimited("client-login")
     public ResponseEntity<LoginResponseDto> login(@RequestBody Client loginClient) {
         LoginResponseDto response = clientService.authenticateUser(loginClient);
 
@@ -47,6 +51,7 @@ public class ClientController {
     }
 
     @PostMapping("/register")
+    @RateLimited("client-register")
     public ResponseEntity<Map<String, String>> register(@RequestBody Client newClient) {
         Map<String, String> response = clientService.registerUser(newClient);
 
@@ -60,9 +65,9 @@ public class ClientController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticatedClient Client client) {
         try {
-            ClientProfileDto dto = clientService.getCurrentUserInfo(token);
+            ClientProfileDto dto = clientService.getCurrentUserInfo(client);
             return ResponseEntity.ok(dto);
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
@@ -76,9 +81,9 @@ public class ClientController {
 
 
     @PutMapping("/update")
-    public ResponseEntity<?> updateUserProfile(@RequestHeader("Authorization") String token, @RequestBody ClientProfileDto updateDto) {
+    public ResponseEntity<?> updateUserProfile(@AuthenticatedClient Client client, @RequestBody ClientProfileDto updateDto) {
         try {
-            ClientProfileDto updatedProfile = clientService.updateUser(token, updateDto);
+            ClientProfileDto updatedProfile = clientService.updateUser(client, updateDto);
             return ResponseEntity.ok(updatedProfile);
         } catch (NotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
@@ -93,16 +98,18 @@ public class ClientController {
 
     @PostMapping("/changePassword")
     public ResponseEntity<?> changePassword(
-            @RequestHeader("Authorization") String token,
+            @AuthenticatedClient Client client,
             @RequestBody Map<String, String> passwords) {
 
         try {
             String currentPassword = passwords.get("currentPassword");
             String newPassword = passwords.get("newPassword");
 
-            clientService.changePassword(token, currentPassword, newPassword);
+            clientService.changePassword(client, currentPassword, newPassword);
 
             return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
+        } catch (TooManyAttemptsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("message", e.getMessage()));
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
         } catch (NotFoundException e) {
@@ -1,10 +1,11 @@
 package com.example.bookstore.controller;
 
 import com.example.bookstore.dto.NotificationAlertDto;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
 import com.example.bookstore.service.NotificationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,7 +21,7 @@ public class NotificationController {
 
     @GetMapping("/alerts")
     public ResponseEntity<NotificationAlertDto> getAlerts(
-            @RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(notificationService.getAlerts(token));
+            @AuthenticatedClient Client client) {
+        return ResponseEntity.ok(notificationService.getAlerts(client));
     }
 }
\ No newline at end of file
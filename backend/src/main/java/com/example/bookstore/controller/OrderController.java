@@ -4,6 +4,8 @@ import com.example.bookstore.dto.OrderDetailDto;
 import com.example.bookstore.dto.OrderSummaryDto;
 import com.example.bookstore.exception.OrderException;
 import com.example.bookstore.model.Orders;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
 import com.example.bookstore.service.OrderService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -24,57 +26,57 @@ public class OrderController {
 
     @PostMapping("/place")
     public ResponseEntity<OrderDetailDto> placeOrder(
-            @RequestHeader("Authorization") String token,
+            @AuthenticatedClient Client client,
             @RequestBody PlaceOrderRequest request) {
         if (request.getPickupPointId() == null) {
             throw new OrderException("Pickup point ID is required");
         }
-        Orders order = orderService.createOrderFromCart(token, request.getPickupPointId());
-        OrderDetailDto orderDetail = orderService.getOrderDetails(order.getOrderId(), token);
+        Orders order = orderService.createOrderFromCart(client, request.getPickupPointId());
+        OrderDetailDto orderDetail = orderService.getOrderDetails(order.getOrderId(), client);
         return ResponseEntity.ok(orderDetail);
     }
 
     @GetMapping("/my-orders")
     public ResponseEntity<Page<OrderSummaryDto>> getUserOrders(
-            @RequestHeader("Authorization") String token,
+            @AuthenticatedClient Client client,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<OrderSummaryDto> orders = orderService.getUserOrders(token, pageable);
+        Page<OrderSummaryDto> orders = orderService.getUserOrders(client, pageable);
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/{orderId}/details")
     public ResponseEntity<OrderDetailDto> getOrderDetails(
-            @RequestHeader("Authorization") String token,
+            @AuthenticatedClient Client client,
             @PathVariable Integer orderId) {
-        OrderDetailDto orderDetail = orderService.getOrderDetails(orderId, token);
+        OrderDetailDto orderDetail = orderService.getOrderDetails(orderId, client);
         return ResponseEntity.ok(orderDetail);
     }
 
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDetailDto> getOrderById(
-                                                        @RequestHeader("Authorization") String token,
+                                                        @AuthenticatedClient Client client,
                                                         @PathVariable Integer orderId) {
-        OrderDetailDto orderDetail = orderService.getOrderDetails(orderId, token);
+        OrderDetailDto orderDetail = orderService.getOrderDetails(orderId, client);
         return ResponseEntity.ok(orderDetail);
     }
 
     @PostMapping("/{orderId}/confirm-payment")
     public ResponseEntity<OrderDetailDto> confirmPayment(
                                                           @PathVariable Integer orderId,
-                                                          @RequestHeader("Authorization") String token) {
+                                                          @AuthenticatedClient Client client) {
         Orders order = orderService.confirmPayment(orderId);
-        OrderDetailDto orderDetail = orderService.getOrderDetails(order.getOrderId(), token);
+        OrderDetailDto orderDetail = orderService.getOrderDetails(order.getOrderId(), client);
         return ResponseEntity.ok(orderDetail);
     }
 
     @PostMapping("/{orderId}/cancel")
     public ResponseEntity<OrderDetailDto> cancelOrder(
             @PathVariable Integer orderId,
-            @RequestHeader("Authorization") String token) {
-        Orders order = orderService.cancelOrderByUser(orderId, token);
-        OrderDetailDto orderDetail = orderService.getOrderDetails(order.getOrderId(), token);
+            @AuthenticatedClient Client client) {
+        Orders order = orderService.cancelOrderByUser(orderId, client);
+        OrderDetailDto orderDetail = orderService.getOrderDetails(order.getOrderId(), client);
         return ResponseEntity.ok(orderDetail);
     }
 
@@ -1,6 +1,8 @@
 package com.example.bookstore.controller;
 
 import com.example.bookstore.model.Orders;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
 import com.example.bookstore.service.OrderService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,8 +25,8 @@ public class PaymentController {
     @PostMapping("/mock-refund")
     public ResponseEntity<String> mockRefund(
             @RequestParam Integer orderId,
-            @RequestHeader("Authorization") String token) {
-        Orders refundedOrder = orderService.processRefund(orderId, token);
+            @AuthenticatedClient Client client) {
+        Orders refundedOrder = orderService.processRefund(orderId, client);
         return ResponseEntity.ok(
                 String.format("Refund processed successfully for order #%d. Amount: %.2f",
                         refundedOrder.getOrderId(),
@@ -1,6 +1,8 @@
 package com.example.bookstore.controller;
 
 import com.example.bookstore.dto.RentalItemDto;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
 import com.example.bookstore.service.RentalService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,12 +22,12 @@ public class RentalController {
 
     @GetMapping("/my-rentals")
     public ResponseEntity<Page<RentalItemDto>> getMyRentals(
-            @RequestHeader("Authorization") String token,
+            @AuthenticatedClient Client client,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<RentalItemDto> rentals = rentalService.getUserRentals(token, pageable);
+        Page<RentalItemDto> rentals = rentalService.getUserRentals(client, pageable);
         return ResponseEntity.ok(rentals);
     }
 }
\ No newline at end of file
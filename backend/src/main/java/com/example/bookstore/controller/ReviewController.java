@@ -7,6 +7,8 @@ import com.example.bookstore.exception.NotFoundException;
 import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.exception.ValidationException;
 import com.example.bookstore.model.Review;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.security.AuthenticatedClient;
 import com.example.bookstore.service.ReviewService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,7 +29,7 @@ public class ReviewController {
 
     @GetMapping("/api/user/reviews")
     public ResponseEntity<?> getMyReviews(
-            @RequestHeader("Authorization") String token,
+            @AuthenticatedClient Client client,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
@@ -35,7 +37,7 @@ public class ReviewController {
                 size = 50;
             }
 
-            Map<String, Object> result = reviewService.getReviewsByUserIdPaginated(token, page, size);
+            Map<String, Object> result = reviewService.getReviewsByUserIdPaginated(client, page, size);
             return ResponseEntity.ok(result);
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
@@ -46,15 +48,15 @@ public class ReviewController {
 
     @PostMapping("api/user/reviews/add")
     public ResponseEntity<Review> createReview(@RequestBody CreateReviewDto createReviewDto,
-                                               @RequestHeader("Authorization") String token) {
-        Review createdReview = reviewService.createReview(createReviewDto, token);
+                                               @AuthenticatedClient Client client) {
+        Review createdReview = reviewService.createReview(createReviewDto, client);
         return ResponseEntity.ok(createdReview);
     }
 
     @GetMapping("api/reviews/can-review/{bookId}")
     public ResponseEntity<Map<String, Object>> canUserReviewBook(@PathVariable Integer bookId,
-                                                                 @RequestHeader("Authorization") String token) {
-        Map<String, Object> result = reviewService.canUserReviewBook(bookId, token);
+                                                                 @AuthenticatedClient Client client) {
+        Map<String, Object> result = reviewService.canUserReviewBook(bookId, client);
         return ResponseEntity.ok(result);
     }
 
@@ -62,9 +64,9 @@ public class ReviewController {
     public ResponseEntity<?> updateReview(
             @PathVariable Integer reviewId,
             @RequestBody UpdateReviewDto updateReviewDto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticatedClient Client client) {
         try {
-            Review updatedReview = reviewService.updateReview(reviewId, updateReviewDto, token);
+            Review updatedReview = reviewService.updateReview(reviewId, updateReviewDto, client);
             return ResponseEntity.ok(Map.of(
                     "message", "Review updated successfully",
                     "reviewId", updatedReview.getReviewId(),
@@ -87,9 +89,9 @@ public class ReviewController {
     @DeleteMapping("/api/user/reviews/{reviewId}")
     public ResponseEntity<?> deleteReview(
             @PathVariable Integer reviewId,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticatedClient Client client) {
         try {
-            reviewService.deleteReview(reviewId, token);
+            reviewService.deleteReview(reviewId, client);
             return ResponseEntity.ok(Map.of(
                     "message", "Review deleted successfully",
                     "reviewId", reviewId
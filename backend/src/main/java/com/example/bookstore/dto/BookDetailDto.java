@@ -20,6 +20,7 @@ public class BookDetailDto {
     private BigDecimal discountPercent;
     private Double averageRating;
     private Integer totalReviews;
+    private List<Integer> ratingHistogram = new ArrayList<>();
 
     public Integer getBookId() {
         return bookId;
@@ -132,4 +133,12 @@ public class BookDetailDto {
     public void setTotalReviews(Integer totalReviews) {
         this.totalReviews = totalReviews;
     }
+
+    public List<Integer> getRatingHistogram() {
+        return ratingHistogram;
+    }
+
+    public void setRatingHistogram(List<Integer> ratingHistogram) {
+        this.ratingHistogram = ratingHistogram;
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.bookstore.dto;
+import java.util.List;
+
+public class CartBatchRequest {
+    private List<CartOperationRequest> operations;
+
+    public CartBatchRequest() {}
+
+    public List<CartOperationRequest> getOperations() { return operations; }
+    public void setOperations(List<CartOperationRequest> operations) { this.operations = operations; }
+}
@@ -0,0 +1,28 @@
+package com.example.bookstore.dto;
+import com.example.bookstore.enums.CartOperationType;
+import com.example.bookstore.enums.ItemType;
+
+public class CartOperationRequest {
+    private CartOperationType action;
+    private Integer cartItemId;
+    private Integer bookId;
+    private ItemType type;
+    private Integer rentalDays;
+
+    public CartOperationRequest() {}
+
+    public CartOperationType getAction() { return action; }
+    public void setAction(CartOperationType action) { this.action = action; }
+
+    public Integer getCartItemId() { return cartItemId; }
+    public void setCartItemId(Integer cartItemId) { this.cartItemId = cartItemId; }
+
+    public Integer getBookId() { return bookId; }
+    public void setBookId(Integer bookId) { this.bookId = bookId; }
+
+    public ItemType getType() { return type; }
+    public void setType(ItemType type) { this.type = type; }
+
+    public Integer getRentalDays() { return rentalDays; }
+    public void setRentalDays(Integer rentalDays) { this.rentalDays = rentalDays; }
+}
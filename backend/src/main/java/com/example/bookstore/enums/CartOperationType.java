@@ -0,0 +1,7 @@
+package com.example.bookstore.enums;
+
+public enum CartOperationType {
+    ADD,
+    REMOVE,
+    UPDATE_RENTAL_DAYS
+}
@@ -0,0 +1,6 @@
+package com.example.bookstore.enums;
+
+public enum CatalogFileFormat {
+    CSV,
+    NDJSON
+}
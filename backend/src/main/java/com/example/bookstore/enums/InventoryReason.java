@@ -0,0 +1,10 @@
+package com.example.bookstore.enums;
+
+public enum InventoryReason {
+        INITIAL,        //stock set when a book is created or imported
+        ADJUSTMENT,     //stock changed by admin on the book form
+        RESTOCK,        //copies added back outside of an order
+        CHECKOUT,       //copies taken by an order item
+        ORDER_CANCELLED,
+        RENTAL_RETURNED
+}
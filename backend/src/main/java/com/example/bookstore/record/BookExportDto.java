@@ -0,0 +1,21 @@
+package com.example.bookstore.record;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record BookExportDto(Integer bookId,
+                            String title,
+                            Integer authorId,
+                            String authorName,
+                            String description,
+                            LocalDateTime publicationDate,
+                            Double purchasePrice,
+                            Double rentalPrice,
+                            Integer stockQuantity,
+                            String status,
+                            BigDecimal discountPercent,
+                            LocalDateTime updatedAt,
+                            List<String> genres,
+                            List<String> categories,
+                            List<String> imageUrls) {}
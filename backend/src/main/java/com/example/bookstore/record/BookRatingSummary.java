@@ -0,0 +1,16 @@
+package com.example.bookstore.record;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record BookRatingSummary(Integer bookId, int reviewCount, int ratingSum, List<Integer> histogram,
+                                LocalDateTime updatedAt) {
+
+    public static BookRatingSummary empty(Integer bookId) {
+        return new BookRatingSummary(bookId, 0, 0, List.of(0, 0, 0, 0, 0), null);
+    }
+
+    public Double averageRating() {
+        return reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+    }
+}
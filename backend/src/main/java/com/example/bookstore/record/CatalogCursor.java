@@ -0,0 +1,25 @@
+package com.example.bookstore.record;
+
+import com.example.bookstore.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record CatalogCursor(Double purchasePrice, Integer bookId) {
+
+    public String encode() {
+        String raw = purchasePrice + ":" + bookId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CatalogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            return new CatalogCursor(Double.valueOf(parts[0]), Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bookstore.record;
+
+import java.util.BitSet;
+import java.util.Map;
+
+public record CatalogSelection(BitSet bookIds, Map<String, Object> facets) {
+
+    public boolean filtered() {
+        return bookIds != null;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.bookstore.record;
+
+import java.time.LocalDate;
+
+public record DailyBookSalesDto(LocalDate day, Integer bookId, long purchases, long rentals) {}
@@ -0,0 +1,3 @@
+package com.example.bookstore.record;
+
+public record SuggestionDto(String type, Integer id, String text) {}
@@ -107,12 +107,11 @@ public class AdminAnalyticsRepository {
     public List<BookRatingDto> getTopRatedBooks(int limit) {
         String sql = """
             SELECT b.title,
-                   ROUND(AVG(r.rating)::numeric, 1) AS avg_rating,
-                   COUNT(r.review_id)               AS review_count
-            FROM review r
-            JOIN book b ON b.book_id = r.book_id
-            GROUP BY b.book_id, b.title
-            HAVING COUNT(r.review_id) > 0
+                   ROUND(s.rating_sum::numeric / s.review_count, 1) AS avg_rating,
+                   s.review_count                                   AS review_count
+            FROM book_rating_summary s
+            JOIN book b ON b.book_id = s.book_id
+            WHERE s.review_count > 0
             ORDER BY avg_rating DESC, review_count DESC
             LIMIT ?
             """;
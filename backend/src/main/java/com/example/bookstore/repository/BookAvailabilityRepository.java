@@ -0,0 +1,46 @@
+package com.example.bookstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class BookAvailabilityRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public BookAvailabilityRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Map<Integer, String> reconcileStatuses() {
+        String sql = """
+            UPDATE book b
+            SET status = CASE WHEN b.stock_quantity = 0 THEN 'NOT_AVAILABLE' ELSE 'AVAILABLE' END,
+                updated_at = now()
+            WHERE (b.stock_quantity = 0 AND b.status IS DISTINCT FROM 'NOT_AVAILABLE')
+               OR (b.stock_quantity <> 0 AND b.status = 'NOT_AVAILABLE')
+            RETURNING b.book_id, b.status
+            """;
+        Map<Integer, String> changed = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            changed.put(rs.getInt("book_id"), rs.getString("status"));
+        });
+        return changed;
+    }
+
+    public Map<String, Integer> countByStatus() {
+        String sql = """
+            SELECT coalesce(b.status, 'UNKNOWN') AS status, count(*) AS books
+            FROM book b
+            GROUP BY 1
+            """;
+        Map<String, Integer> counts = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            counts.put(rs.getString("status"), rs.getInt("books"));
+        });
+        return counts;
+    }
+}
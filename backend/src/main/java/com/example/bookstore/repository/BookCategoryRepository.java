@@ -5,10 +5,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookCategoryRepository extends JpaRepository<BookCategory, Integer> {
     List<BookCategory> findByBookId(Integer bookId);
+    List<BookCategory> findByBookIdIn(Collection<Integer> bookIds);
     @Modifying
     @Query("DELETE FROM BookCategory bc WHERE bc.bookId = :bookId AND bc.categoryId IN :categoryIds")
     void deleteByBookIdAndCategoryIds(Integer bookId, List<Integer> categoryIds);
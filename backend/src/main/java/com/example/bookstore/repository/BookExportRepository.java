@@ -0,0 +1,77 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.record.BookExportDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+public class BookExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbc;
+
+    public BookExportRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void forEachBook(Consumer<BookExportDto> consumer) {
+        String sql = """
+            SELECT b.book_id, b.title, b.author_id, a.full_name AS author_name, b.description,
+                   b.publication_date, b.purchase_price, b.rental_price, b.stock_quantity,
+                   b.status, b.discount_percent, b.updated_at,
+                   ARRAY(SELECT g.name FROM book_genre bg JOIN genre g ON g.genre_id = bg.genre_id
+                         WHERE bg.book_id = b.book_id ORDER BY g.name)          AS genres,
+                   ARRAY(SELECT c.name FROM book_category bc JOIN category c ON c.category_id = bc.category_id
+                         WHERE bc.book_id = b.book_id ORDER BY c.name)          AS categories,
+                   ARRAY(SELECT bi.image_url FROM book_image bi
+                         WHERE bi.book_id = b.book_id ORDER BY bi.image_id)     AS image_urls
+            FROM book b
+            LEFT JOIN author a ON a.author_id = b.author_id
+            ORDER BY b.book_id
+            """;
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(new BookExportDto(
+                    rs.getInt("book_id"),
+                    rs.getString("title"),
+                    (Integer) rs.getObject("author_id"),
+                    rs.getString("author_name"),
+                    rs.getString("description"),
+                    toLocalDateTime(rs.getTimestamp("publication_date")),
+                    (Double) rs.getObject("purchase_price"),
+                    (Double) rs.getObject("rental_price"),
+                    (Integer) rs.getObject("stock_quantity"),
+                    rs.getString("status"),
+                    rs.getBigDecimal("discount_percent"),
+                    toLocalDateTime(rs.getTimestamp("updated_at")),
+                    toList(rs.getArray("genres")),
+                    toList(rs.getArray("categories")),
+                    toList(rs.getArray("image_urls"))));
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static List<String> toList(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            return Arrays.asList((String[]) array.getArray());
+        } finally {
+            array.free();
+        }
+    }
+}
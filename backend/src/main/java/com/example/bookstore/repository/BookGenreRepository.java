@@ -5,10 +5,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookGenreRepository extends JpaRepository<BookGenre, Integer> {
     List<BookGenre> findByBookId(Integer bookId);
+    List<BookGenre> findByBookIdIn(Collection<Integer> bookIds);
     @Modifying
     @Query("DELETE FROM BookGenre bg WHERE bg.bookId = :bookId AND bg.genreId IN :genreIds")
     void deleteByBookIdAndGenreIds(Integer bookId, List<Integer> genreIds);
@@ -2,10 +2,21 @@ package com.example.bookstore.repository;
 
 import com.example.bookstore.model.BookImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookImageRepository extends JpaRepository<BookImage, Integer> {
     List<BookImage> findByBook_BookId(Integer bookId);
     void deleteByBook_BookId(Integer bookId);
-}
\ No newline at end of file
+
+    @Query("""
+        SELECT bi.book.bookId, bi.imageUrl
+        FROM BookImage bi
+        WHERE bi.book.bookId IN :bookIds
+        ORDER BY bi.imageId ASC
+        """)
+    List<Object[]> findImageUrlsByBookIds(@Param("bookIds") Collection<Integer> bookIds);
+}
@@ -0,0 +1,85 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.dto.UpdateBookDto;
+import com.example.bookstore.enums.InventoryReason;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class BookImportRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public BookImportRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<Integer> allocateBookIds(int count) {
+        String sql = """
+            SELECT nextval('public.book_book_id_seq')::integer
+            FROM generate_series(1, ?)
+            """;
+        return jdbc.queryForList(sql, Integer.class, count);
+    }
+
+    public void insertBooks(List<Integer> bookIds, List<UpdateBookDto> books) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        List<Object[]> bookRows = new ArrayList<>(books.size());
+        List<Object[]> genreRows = new ArrayList<>();
+        List<Object[]> categoryRows = new ArrayList<>();
+        List<Object[]> imageRows = new ArrayList<>();
+        List<Object[]> movementRows = new ArrayList<>();
+
+        for (int i = 0; i < books.size(); i++) {
+            UpdateBookDto dto = books.get(i);
+            Integer bookId = bookIds.get(i);
+            bookRows.add(new Object[]{
+                    bookId,
+                    dto.getTitle().trim(),
+                    dto.getAuthorId(),
+                    dto.getDescription() != null ? dto.getDescription().trim() : null,
+                    Timestamp.valueOf(dto.getPublicationDate()),
+                    dto.getPurchasePrice(),
+                    dto.getRentalPrice(),
+                    dto.getStockQuantity() != null ? dto.getStockQuantity() : 0,
+                    dto.getStatus() != null ? dto.getStatus() : "AVAILABLE",
+                    dto.getDiscountPercent() != null ? dto.getDiscountPercent() : BigDecimal.ZERO,
+                    now,
+                    now
+            });
+            if (dto.getStockQuantity() != null && dto.getStockQuantity() != 0) {
+                movementRows.add(new Object[]{bookId, dto.getStockQuantity(), InventoryReason.INITIAL.name()});
+            }
+            if (dto.getGenreIds() != null) {
+                dto.getGenreIds().stream().distinct()
+                        .forEach(genreId -> genreRows.add(new Object[]{bookId, genreId}));
+            }
+            if (dto.getCategoryIds() != null) {
+                dto.getCategoryIds().stream().distinct()
+                        .forEach(categoryId -> categoryRows.add(new Object[]{bookId, categoryId}));
+            }
+            if (dto.getImageUrls() != null) {
+                dto.getImageUrls().stream()
+                        .filter(url -> url != null && !url.isBlank())
+                        .forEach(url -> imageRows.add(new Object[]{bookId, url.trim()}));
+            }
+        }
+
+        jdbc.batchUpdate("""
+            INSERT INTO book (book_id, title, author_id, description, publication_date,
+                              purchase_price, rental_price, stock_quantity, status,
+                              discount_percent, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """, bookRows);
+        jdbc.batchUpdate("INSERT INTO book_genre (book_id, genre_id) VALUES (?, ?)", genreRows);
+        jdbc.batchUpdate("INSERT INTO book_category (book_id, category_id) VALUES (?, ?)", categoryRows);
+        jdbc.batchUpdate("INSERT INTO book_image (book_id, image_url) VALUES (?, ?)", imageRows);
+        jdbc.batchUpdate("INSERT INTO inventory_movement (book_id, delta, reason) VALUES (?, ?, ?)", movementRows);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.record.BookRatingSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class BookRatingSummaryRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public BookRatingSummaryRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<BookRatingSummary> findByBookId(Integer bookId) {
+        String sql = """
+            SELECT book_id, review_count, rating_sum,
+                   rating_1, rating_2, rating_3, rating_4, rating_5, updated_at
+            FROM book_rating_summary
+            WHERE book_id = ?
+            """;
+        return jdbc.query(sql,
+                (rs, i) -> new BookRatingSummary(
+                        rs.getInt("book_id"),
+                        rs.getInt("review_count"),
+                        rs.getInt("rating_sum"),
+                        List.of(rs.getInt("rating_1"), rs.getInt("rating_2"), rs.getInt("rating_3"),
+                                rs.getInt("rating_4"), rs.getInt("rating_5")),
+                        rs.getTimestamp("updated_at").toLocalDateTime()),
+                bookId).stream().findFirst();
+    }
+
+    public void addRating(Integer bookId, int rating) {
+        applyDelta(bookId, 1, rating, histogramDelta(rating, 1));
+    }
+
+    public void removeRating(Integer bookId, int rating) {
+        applyDelta(bookId, -1, -rating, histogramDelta(rating, -1));
+    }
+
+    public void changeRating(Integer bookId, int oldRating, int newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+        int[] delta = histogramDelta(oldRating, -1);
+        delta[newRating - 1] += 1;
+        applyDelta(bookId, 0, newRating - oldRating, delta);
+    }
+
+    public int rebuildAll() {
+        String reset = """
+            UPDATE book_rating_summary s
+            SET review_count = 0, rating_sum = 0,
+                rating_1 = 0, rating_2 = 0, rating_3 = 0, rating_4 = 0, rating_5 = 0,
+                updated_at = now()
+            WHERE NOT EXISTS (SELECT 1 FROM review r WHERE r.book_id = s.book_id)
+              AND s.review_count <> 0
+            """;
+        String recompute = """
+            INSERT INTO book_rating_summary (book_id, review_count, rating_sum,
+                                             rating_1, rating_2, rating_3, rating_4, rating_5, updated_at)
+            SELECT r.book_id,
+                   COUNT(*),
+                   SUM(r.rating),
+                   COUNT(*) FILTER (WHERE r.rating = 1),
+                   COUNT(*) FILTER (WHERE r.rating = 2),
+                   COUNT(*) FILTER (WHERE r.rating = 3),
+                   COUNT(*) FILTER (WHERE r.rating = 4),
+                   COUNT(*) FILTER (WHERE r.rating = 5),
+                   now()
+            FROM review r
+            GROUP BY r.book_id
+            ON CONFLICT (book_id) DO UPDATE SET
+                review_count = EXCLUDED.review_count,
+                rating_sum   = EXCLUDED.rating_sum,
+                rating_1     = EXCLUDED.rating_1,
+                rating_2     = EXCLUDED.rating_2,
+                rating_3     = EXCLUDED.rating_3,
+                rating_4     = EXCLUDED.rating_4,
+                rating_5     = EXCLUDED.rating_5,
+                updated_at   = now()
+            """;
+        jdbc.update(reset);
+        return jdbc.update(recompute);
+    }
+
+    private void applyDelta(Integer bookId, int countDelta, int sumDelta, int[] histogram) {
+        String sql = """
+            INSERT INTO book_rating_summary (book_id, review_count, rating_sum,
+                                             rating_1, rating_2, rating_3, rating_4, rating_5, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, now())
+            ON CONFLICT (book_id) DO UPDATE SET
+                review_count = book_rating_summary.review_count + EXCLUDED.review_count,
+                rating_sum   = book_rating_summary.rating_sum + EXCLUDED.rating_sum,
+                rating_1     = book_rating_summary.rating_1 + EXCLUDED.rating_1,
+                rating_2     = book_rating_summary.rating_2 + EXCLUDED.rating_2,
+                rating_3     = book_rating_summary.rating_3 + EXCLUDED.rating_3,
+                rating_4     = book_rating_summary.rating_4 + EXCLUDED.rating_4,
+                rating_5     = book_rating_summary.rating_5 + EXCLUDED.rating_5,
+                updated_at   = now()
+            """;
+        jdbc.update(sql, bookId, countDelta, sumDelta,
+                histogram[0], histogram[1], histogram[2], histogram[3], histogram[4]);
+    }
+
+    private int[] histogramDelta(int rating, int delta) {
+        int[] histogram = new int[5];
+        histogram[rating - 1] = delta;
+        return histogram;
+    }
+}
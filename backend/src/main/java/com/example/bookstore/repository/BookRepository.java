@@ -1,5 +1,6 @@
 package com.example.bookstore.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,24 +15,37 @@ import java.util.List;
 public interface BookRepository extends JpaRepository<Book, Integer>{
 
     @Query("""
-  SELECT DISTINCT b
+  SELECT b
     FROM Book b
-    LEFT JOIN BookGenre bg ON b.bookId = bg.bookId
-    LEFT JOIN BookCategory bc ON b.bookId = bc.bookId
-    JOIN Author a ON a.authorId = b.authorId
-  WHERE (:genreIds IS NULL OR bg.genreId IN :genreIds)
-    AND (:categoryIds IS NULL OR bc.categoryId IN :categoryIds)
+  WHERE b.purchasePrice IS NOT NULL
     AND (
-         :pattern IS NULL
-      OR b.title ILIKE :pattern
-      OR a.fullName ILIKE :pattern
+         :afterPrice IS NULL
+      OR b.purchasePrice > :afterPrice
+      OR (b.purchasePrice = :afterPrice AND b.bookId > :afterId)
     )
+  ORDER BY b.purchasePrice ASC, b.bookId ASC
 """)
-    Page<Book> findFiltered(
-            @Param("genreIds")   List<Integer> genreIds,
-            @Param("categoryIds")List<Integer> categoryIds,
-            @Param("pattern")    String pattern,
-            Pageable pageable
+    List<Book> findAfterAsc(
+            @Param("afterPrice") Double afterPrice,
+            @Param("afterId")    Integer afterId,
+            Limit limit
+    );
+
+    @Query("""
+  SELECT b
+    FROM Book b
+  WHERE b.purchasePrice IS NOT NULL
+    AND (
+         :afterPrice IS NULL
+      OR b.purchasePrice < :afterPrice
+      OR (b.purchasePrice = :afterPrice AND b.bookId < :afterId)
+    )
+  ORDER BY b.purchasePrice DESC, b.bookId DESC
+""")
+    List<Book> findAfterDesc(
+            @Param("afterPrice") Double afterPrice,
+            @Param("afterId")    Integer afterId,
+            Limit limit
     );
 
     @Query("""
@@ -50,21 +64,6 @@ public interface BookRepository extends JpaRepository<Book, Integer>{
 """)
     Page<Book> findNewBooks(@Param("oneMonthAgo") LocalDateTime oneMonthAgo, Pageable pageable);
 
-    @Query("""
-  SELECT DISTINCT b
-    FROM Book b
-    JOIN BookCategory bc ON b.bookId = bc.bookId
-  WHERE bc.categoryId = 3
-  ORDER BY b.purchasePrice DESC
-""")
-    Page<Book> findBestsellers(Pageable pageable);
-
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.bookId = :bookId")
-    Double getAverageRatingByBookId(@Param("bookId") Integer bookId);
-
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.bookId = :bookId")
-    Integer getTotalReviewsByBookId(@Param("bookId") Integer bookId);
-
     @Query("""
   SELECT DISTINCT b
     FROM Book b
@@ -81,4 +80,19 @@ public interface BookRepository extends JpaRepository<Book, Integer>{
             @Param("pattern") String pattern,
             Pageable pageable
     );
+
+    @Query("SELECT b.bookId, b.status FROM Book b")
+    List<Object[]> findAllStatuses();
+
+    @Query("SELECT b.bookId, b.title, b.authorId FROM Book b")
+    List<Object[]> findAllTitles();
+
+    @Query("""
+  SELECT b.bookId
+    FROM Book b
+    JOIN Author a ON a.authorId = b.authorId
+  WHERE b.title ILIKE :pattern
+     OR a.fullName ILIKE :pattern
+""")
+    List<Integer> findIdsByTitleOrAuthor(@Param("pattern") String pattern);
 }
\ No newline at end of file
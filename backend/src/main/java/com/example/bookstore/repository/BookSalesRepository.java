@@ -0,0 +1,39 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.record.DailyBookSalesDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class BookSalesRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public BookSalesRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<DailyBookSalesDto> getDailySalesSince(LocalDate since) {
+        String sql = """
+            SELECT o.created_at::date                          AS day,
+                   oi.book_id,
+                   COUNT(*) FILTER (WHERE oi.type = 'BUY')     AS purchases,
+                   COUNT(*) FILTER (WHERE oi.type = 'RENT')    AS rentals
+            FROM order_item oi
+            JOIN orders o ON o.order_id = oi.order_id
+            WHERE o.created_at >= ?
+              AND (oi.item_status IS NULL OR oi.item_status <> 'CANCELLED')
+            GROUP BY o.created_at::date, oi.book_id
+            """;
+        return jdbc.query(sql,
+                (rs, i) -> new DailyBookSalesDto(
+                        rs.getDate("day").toLocalDate(),
+                        rs.getInt("book_id"),
+                        rs.getLong("purchases"),
+                        rs.getLong("rentals")),
+                since.atStartOfDay());
+    }
+}
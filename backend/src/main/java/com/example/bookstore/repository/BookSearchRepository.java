@@ -0,0 +1,82 @@
+package com.example.bookstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class BookSearchRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public BookSearchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void upsertDocument(Integer bookId, String title, Integer authorId) {
+        String sql = """
+            INSERT INTO book_search (book_id, document, updated_at)
+            SELECT ?, concat_ws(' ', ?::text, (SELECT a.full_name FROM author a WHERE a.author_id = ?)), now()
+            ON CONFLICT (book_id)
+            DO UPDATE SET document = EXCLUDED.document, updated_at = now()
+            """;
+        jdbc.update(sql, bookId, title, authorId);
+    }
+
+    public int updateAuthorName(Integer authorId, String authorName) {
+        String sql = """
+            UPDATE book_search bs
+            SET document = concat_ws(' ', b.title, ?), updated_at = now()
+            FROM book b
+            WHERE b.book_id = bs.book_id
+              AND b.author_id = ?
+            """;
+        return jdbc.update(sql, authorName, authorId);
+    }
+
+    public int indexBooks(List<Integer> bookIds) {
+        String sql = """
+            INSERT INTO book_search (book_id, document, updated_at)
+            SELECT b.book_id, concat_ws(' ', b.title, a.full_name), now()
+            FROM book b
+            LEFT JOIN author a ON a.author_id = b.author_id
+            WHERE b.book_id = ANY (?)
+            ON CONFLICT (book_id)
+            DO UPDATE SET document = EXCLUDED.document, updated_at = now()
+            """;
+        return jdbc.update(sql, ps -> ps.setArray(1,
+                ps.getConnection().createArrayOf("integer", bookIds.toArray())));
+    }
+
+    public int rebuildAll() {
+        String sql = """
+            INSERT INTO book_search (book_id, document, updated_at)
+            SELECT b.book_id, concat_ws(' ', b.title, a.full_name), now()
+            FROM book b
+            LEFT JOIN author a ON a.author_id = b.author_id
+            ON CONFLICT (book_id)
+            DO UPDATE SET document = EXCLUDED.document, updated_at = now()
+            """;
+        return jdbc.update(sql);
+    }
+
+    public long countDocuments() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM book_search", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    public List<Integer> search(String query, int limit, int offset) {
+        String sql = """
+            SELECT bs.book_id
+            FROM book_search bs,
+                 plainto_tsquery('simple', ?) q
+            WHERE bs.document_tsv @@ q
+               OR ? <% bs.document
+            ORDER BY ts_rank(bs.document_tsv, q) + word_similarity(?, bs.document) DESC,
+                     bs.book_id ASC
+            LIMIT ? OFFSET ?
+            """;
+        return jdbc.queryForList(sql, Integer.class, query, query, query, limit, offset);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.model.CartItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class CartPersistenceRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public CartPersistenceRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Integer allocateCartId() {
+        return jdbc.queryForObject("SELECT nextval('public.cart_cart_id_seq')::integer", Integer.class);
+    }
+
+    public void saveCart(Integer userId, Integer cartId, List<CartItem> items) {
+        jdbc.update("DELETE FROM cart WHERE user_id = ? AND cart_id <> ?", userId, cartId);
+        jdbc.update("""
+            INSERT INTO cart (cart_id, user_id, created_at, updated_at)
+            VALUES (?, ?, now(), now())
+            ON CONFLICT (cart_id)
+            DO UPDATE SET updated_at = now()
+            """, cartId, userId);
+        jdbc.update("DELETE FROM cart_item WHERE cart_id = ?", cartId);
+        jdbc.batchUpdate("""
+            INSERT INTO cart_item (cart_id, book_id, type, rental_days, added_at)
+            VALUES (?, ?, ?, ?, ?)
+            """, items, items.size(), (ps, item) -> {
+            ps.setInt(1, cartId);
+            ps.setInt(2, item.getBookId());
+            ps.setString(3, item.getType().name());
+            ps.setObject(4, item.getRentalDays());
+            ps.setTimestamp(5, item.getAddedAt() != null ? Timestamp.valueOf(item.getAddedAt()) : null);
+        });
+    }
+
+    public void deleteCarts(Integer userId) {
+        jdbc.update("DELETE FROM cart WHERE user_id = ?", userId);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.bookstore.repository;
 
 import com.example.bookstore.model.Cart;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +14,10 @@ public interface CartRepository extends JpaRepository<Cart, Integer> {
     Optional<Cart> findByUserId(Integer userId);
     void deleteByUserId(Integer userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.userId = :userId")
+    Optional<Cart> findByUserIdForUpdate(@Param("userId") Integer userId);
+
     @Modifying
     @Query("DELETE FROM Cart c WHERE c.userId = :userId")
     void deleteCartByUserIdCascade(@Param("userId") Integer userId);
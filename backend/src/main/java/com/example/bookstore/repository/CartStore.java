@@ -0,0 +1,29 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.model.CartItem;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CartStore {
+
+    Optional<Integer> findCartId(Integer userId);
+
+    Integer getOrCreateCartId(Integer userId);
+
+    CartItem addItem(Integer userId, CartItem item, int maxItems);
+
+    Optional<CartItem> findItem(Integer userId, Integer cartItemId);
+
+    long removeItem(Integer userId, CartItem item);
+
+    List<CartItem> findItems(Integer userId);
+
+    List<CartItem> lockItems(Integer userId);
+
+    List<CartItem> replaceItems(Integer userId, List<CartItem> current, List<CartItem> updated);
+
+    long countItems(Integer userId);
+
+    void clear(Integer userId);
+}
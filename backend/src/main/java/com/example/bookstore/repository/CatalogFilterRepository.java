@@ -0,0 +1,61 @@
+package com.example.bookstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+
+@Repository
+public class CatalogFilterRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public CatalogFilterRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<Integer> findPageIds(BitSet bookIds, boolean descending, long offset, int limit) {
+        String direction = descending ? "DESC" : "ASC";
+        String sql = """
+            SELECT b.book_id
+            FROM book b
+            WHERE b.book_id = ANY (?)
+            ORDER BY b.purchase_price %s, b.book_id %s
+            OFFSET ? LIMIT ?
+            """.formatted(direction, direction);
+        return jdbc.query(sql, ps -> {
+            ps.setArray(1, integerArray(ps.getConnection(), bookIds));
+            ps.setLong(2, offset);
+            ps.setInt(3, limit);
+        }, (rs, rowNum) -> rs.getInt("book_id"));
+    }
+
+    public List<Integer> findIdsAfter(BitSet bookIds, boolean descending, Double afterPrice, Integer afterId, int limit) {
+        String direction = descending ? "DESC" : "ASC";
+        String comparison = descending ? "<" : ">";
+        String sql = """
+            SELECT b.book_id
+            FROM book b
+            WHERE b.book_id = ANY (?)
+              AND b.purchase_price IS NOT NULL
+              AND (?::float8 IS NULL OR (b.purchase_price, b.book_id) %s (?::float8, ?::int))
+            ORDER BY b.purchase_price %s, b.book_id %s
+            LIMIT ?
+            """.formatted(comparison, direction, direction);
+        return jdbc.query(sql, ps -> {
+            ps.setArray(1, integerArray(ps.getConnection(), bookIds));
+            ps.setObject(2, afterPrice);
+            ps.setObject(3, afterPrice);
+            ps.setObject(4, afterId);
+            ps.setInt(5, limit);
+        }, (rs, rowNum) -> rs.getInt("book_id"));
+    }
+
+    private static Array integerArray(Connection connection, BitSet values) throws SQLException {
+        return connection.createArrayOf("integer", values.stream().boxed().toArray());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.enums.InventoryReason;
+import com.example.bookstore.model.OrderItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class InventoryLedgerRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public InventoryLedgerRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void record(Integer bookId, int delta, InventoryReason reason, Integer orderId, Integer orderItemId) {
+        String sql = """
+            INSERT INTO inventory_movement (book_id, delta, reason, order_id, order_item_id)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+        jdbc.update(sql, bookId, delta, reason.name(), orderId, orderItemId);
+    }
+
+    public void recordOrderItems(List<OrderItem> items, int delta, InventoryReason reason) {
+        String sql = """
+            INSERT INTO inventory_movement (book_id, delta, reason, order_id, order_item_id)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+        jdbc.batchUpdate(sql, items, items.size(), (ps, item) -> {
+            ps.setInt(1, item.getBookId());
+            ps.setInt(2, delta);
+            ps.setString(3, reason.name());
+            ps.setObject(4, item.getOrderId());
+            ps.setObject(5, item.getOrderItemId());
+        });
+    }
+
+    public int compactSnapshots(int settleSeconds) {
+        String sql = """
+            WITH cutoff AS (
+                SELECT coalesce(max(movement_id), 0) AS movement_id
+                FROM inventory_movement
+                WHERE created_at < now() - make_interval(secs => ?)
+            )
+            INSERT INTO inventory_snapshot (book_id, quantity, last_movement_id, taken_at)
+            SELECT b.book_id,
+                   CASE WHEN s.book_id IS NULL
+                        THEN b.stock_quantity - coalesce(recent.delta, 0)
+                        ELSE s.quantity + coalesce(settled.delta, 0)
+                   END,
+                   c.movement_id,
+                   now()
+            FROM book b
+            CROSS JOIN cutoff c
+            LEFT JOIN inventory_snapshot s ON s.book_id = b.book_id
+            LEFT JOIN LATERAL (
+                SELECT sum(m.delta) AS delta
+                FROM inventory_movement m
+                WHERE m.book_id = b.book_id
+                  AND m.movement_id > s.last_movement_id
+                  AND m.movement_id <= c.movement_id
+            ) settled ON s.book_id IS NOT NULL
+            LEFT JOIN LATERAL (
+                SELECT sum(m.delta) AS delta
+                FROM inventory_movement m
+                WHERE m.book_id = b.book_id
+                  AND m.movement_id > c.movement_id
+            ) recent ON s.book_id IS NULL
+            WHERE b.stock_quantity IS NOT NULL
+              AND (s.book_id IS NULL OR settled.delta IS NOT NULL)
+            ON CONFLICT (book_id)
+            DO UPDATE SET quantity = EXCLUDED.quantity,
+                          last_movement_id = EXCLUDED.last_movement_id,
+                          taken_at = EXCLUDED.taken_at
+            """;
+        return jdbc.update(sql, settleSeconds);
+    }
+
+    public List<Integer> findDriftedBooks() {
+        String sql = """
+            SELECT b.book_id
+            FROM book b
+            JOIN inventory_snapshot s ON s.book_id = b.book_id
+            LEFT JOIN LATERAL (
+                SELECT sum(m.delta) AS delta
+                FROM inventory_movement m
+                WHERE m.book_id = b.book_id
+                  AND m.movement_id > s.last_movement_id
+            ) pending ON true
+            WHERE s.quantity + coalesce(pending.delta, 0) <> b.stock_quantity
+            ORDER BY b.book_id
+            """;
+        return jdbc.queryForList(sql, Integer.class);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.exception.CartException;
+import com.example.bookstore.model.Cart;
+import com.example.bookstore.model.CartItem;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+
+    public JpaCartStore(CartRepository cartRepository, CartItemRepository cartItemRepository) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    @Override
+    public Optional<Integer> findCartId(Integer userId) {
+        return cartRepository.findByUserId(userId).map(Cart::getCartId);
+    }
+
+    @Override
+    public Integer getOrCreateCartId(Integer userId) {
+        return cartRepository.findByUserId(userId)
+                .orElseGet(() -> {
+                    Cart cart = new Cart();
+                    cart.setUserId(userId);
+                    cart.setCreatedAt(LocalDateTime.now());
+                    cart.setUpdatedAt(LocalDateTime.now());
+                    return cartRepository.save(cart);
+                })
+                .getCartId();
+    }
+
+    @Override
+    public CartItem addItem(Integer userId, CartItem item, int maxItems) {
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseThrow(() -> new CartException("Cart is empty or not found"));
+        if (cartItemRepository.countByCartId(cart.getCartId()) >= maxItems) {
+            throw new CartException("Cart is full. Maximum " + maxItems + " items allowed");
+        }
+        item.setCartId(cart.getCartId());
+        cart.setUpdatedAt(LocalDateTime.now());
+        cartRepository.save(cart);
+        return cartItemRepository.save(item);
+    }
+
+    @Override
+    public Optional<CartItem> findItem(Integer userId, Integer cartItemId) {
+        Optional<Cart> cart = cartRepository.findByUserId(userId);
+        if (cart.isEmpty()) {
+            return Optional.empty();
+        }
+        return cartItemRepository.findById(cartItemId)
+                .filter(item -> item.getCartId().equals(cart.get().getCartId()));
+    }
+
+    @Override
+    public long removeItem(Integer userId, CartItem item) {
+        cartItemRepository.deleteById(item.getCartItemId());
+        long remainingItems = cartItemRepository.countByCartId(item.getCartId());
+        if (remainingItems == 0) {
+            cartItemRepository.deleteByCartId(item.getCartId());
+            cartRepository.deleteByUserId(userId);
+        } else {
+            cartRepository.findById(item.getCartId()).ifPresent(cart -> {
+                cart.setUpdatedAt(LocalDateTime.now());
+                cartRepository.save(cart);
+            });
+        }
+        return remainingItems;
+    }
+
+    @Override
+    public List<CartItem> findItems(Integer userId) {
+        return cartRepository.findByUserId(userId)
+                .map(cart -> cartItemRepository.findByCartId(cart.getCartId()))
+                .orElse(List.of());
+    }
+
+    @Override
+    public List<CartItem> lockItems(Integer userId) {
+        return cartRepository.findByUserIdForUpdate(userId)
+                .map(cart -> cartItemRepository.findByCartId(cart.getCartId()))
+                .orElse(List.of());
+    }
+
+    @Override
+    public List<CartItem> replaceItems(Integer userId, List<CartItem> current, List<CartItem> updated) {
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseThrow(() -> new CartException("Cart is empty or not found"));
+        if (updated.isEmpty()) {
+            cartRepository.deleteCartByUserIdCascade(userId);
+            return List.of();
+        }
+
+        Map<Integer, CartItem> currentById = current.stream()
+                .collect(Collectors.toMap(CartItem::getCartItemId, Function.identity()));
+        Set<Integer> keptIds = updated.stream()
+                .map(CartItem::getCartItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Integer> removedIds = currentById.keySet().stream()
+                .filter(id -> !keptIds.contains(id))
+                .collect(Collectors.toList());
+        if (!removedIds.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(removedIds);
+        }
+
+        List<CartItem> changed = new ArrayList<>();
+        for (CartItem item : updated) {
+            item.setCartId(cart.getCartId());
+            CartItem existing = item.getCartItemId() != null ? currentById.get(item.getCartItemId()) : null;
+            if (existing == null || !Objects.equals(existing.getRentalDays(), item.getRentalDays())) {
+                changed.add(item);
+            }
+        }
+        cartItemRepository.saveAll(changed);
+        cart.setUpdatedAt(LocalDateTime.now());
+        cartRepository.save(cart);
+        return updated;
+    }
+
+    @Override
+    public long countItems(Integer userId) {
+        return cartRepository.findByUserId(userId)
+                .map(cart -> cartItemRepository.countByCartId(cart.getCartId()))
+                .orElse(0L);
+    }
+
+    @Override
+    public void clear(Integer userId) {
+        cartRepository.deleteCartByUserIdCascade(userId);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bookstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+@Repository
+public class StockReservationRepository {
+
+    public record StockChange(int stockQuantity, String status, String previousStatus) {}
+
+    private final JdbcTemplate jdbc;
+
+    public StockReservationRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Map<Integer, String> reserve(Map<Integer, Integer> quantities, Map<Integer, Integer> heldElsewhere) {
+        String sql = """
+            WITH requested AS (
+                SELECT r.book_id, r.quantity, r.held
+                FROM unnest(?::int[], ?::int[], ?::int[]) AS r(book_id, quantity, held)
+            ), locked AS (
+                SELECT b.book_id, b.stock_quantity
+                FROM book b
+                JOIN requested r ON r.book_id = b.book_id
+                ORDER BY b.book_id
+                FOR UPDATE OF b
+            ), sufficient AS (
+                SELECT count(*) AS books
+                FROM locked l
+                JOIN requested r ON r.book_id = l.book_id
+                WHERE l.stock_quantity - r.held >= r.quantity
+            )
+            UPDATE book b
+            SET stock_quantity = b.stock_quantity - r.quantity,
+                status = CASE WHEN b.stock_quantity - r.quantity = 0 THEN 'NOT_AVAILABLE' ELSE b.status END,
+                updated_at = now()
+            FROM requested r, sufficient s
+            WHERE b.book_id = r.book_id
+              AND b.stock_quantity - r.held >= r.quantity
+              AND s.books = (SELECT count(*) FROM requested)
+            RETURNING b.book_id, b.status
+            """;
+        List<Integer> bookIds = new ArrayList<>(quantities.keySet());
+        List<Integer> counts = new ArrayList<>(quantities.values());
+        List<Integer> held = bookIds.stream().map(id -> heldElsewhere.getOrDefault(id, 0)).toList();
+        Map<Integer, String> reserved = new HashMap<>();
+        jdbc.query(sql, ps -> {
+            ps.setArray(1, integerArray(ps.getConnection(), bookIds));
+            ps.setArray(2, integerArray(ps.getConnection(), counts));
+            ps.setArray(3, integerArray(ps.getConnection(), held));
+        }, rs -> {
+            reserved.put(rs.getInt("book_id"), rs.getString("status"));
+        });
+        return reserved;
+    }
+
+    public Optional<StockChange> addStock(Integer bookId, int quantity) {
+        String sql = """
+            WITH locked AS (
+                SELECT b.book_id, b.status
+                FROM book b
+                WHERE b.book_id = ?
+                FOR UPDATE
+            )
+            UPDATE book b
+            SET stock_quantity = b.stock_quantity + ?,
+                status = CASE
+                    WHEN b.stock_quantity + ? = 0 THEN 'NOT_AVAILABLE'
+                    WHEN b.status = 'NOT_AVAILABLE' THEN 'AVAILABLE'
+                    ELSE b.status
+                END,
+                updated_at = now()
+            FROM locked l
+            WHERE b.book_id = l.book_id
+            RETURNING b.stock_quantity, b.status, l.status AS previous_status
+            """;
+        List<StockChange> changes = jdbc.query(sql,
+                (rs, rowNum) -> new StockChange(rs.getInt("stock_quantity"), rs.getString("status"),
+                        rs.getString("previous_status")),
+                bookId, quantity, quantity);
+        return changes.stream().findFirst();
+    }
+
+    public Map<Integer, Integer> findStock(Collection<Integer> bookIds) {
+        String sql = """
+            SELECT b.book_id, b.stock_quantity
+            FROM book b
+            WHERE b.book_id = ANY (?)
+            """;
+        Map<Integer, Integer> stock = new HashMap<>();
+        jdbc.query(sql, ps -> ps.setArray(1, integerArray(ps.getConnection(), bookIds)),
+                rs -> {
+                    stock.put(rs.getInt("book_id"), rs.getInt("stock_quantity"));
+                });
+        return stock;
+    }
+
+    private static Array integerArray(Connection connection, Collection<Integer> values) throws SQLException {
+        return connection.createArrayOf("integer", values.toArray());
+    }
+}
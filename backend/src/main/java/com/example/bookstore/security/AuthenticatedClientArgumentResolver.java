@@ -0,0 +1,34 @@
+package com.example.bookstore.security;
+
+import com.example.bookstore.exception.UnauthorizedException;
+import com.example.bookstore.model.Client;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class AuthenticatedClientArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(AuthenticatedClient.class)
+                && Client.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object client = webRequest.getAttribute(ClientAuthenticationFilter.CLIENT_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (client != null) {
+            return client;
+        }
+        Object error = webRequest.getAttribute(ClientAuthenticationFilter.ERROR_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        throw new UnauthorizedException(error != null ? error.toString() : "Invalid Authorization header.");
+    }
+}
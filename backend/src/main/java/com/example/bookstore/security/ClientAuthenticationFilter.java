@@ -0,0 +1,45 @@
+package com.example.bookstore.security;
+
+import com.example.bookstore.exception.NotFoundException;
+import com.example.bookstore.exception.UnauthorizedException;
+import com.example.bookstore.service.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class ClientAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ATTRIBUTE = ClientAuthenticationFilter.class.getName() + ".client";
+    public static final String ERROR_ATTRIBUTE = ClientAuthenticationFilter.class.getName() + ".error";
+
+    private final AuthService authService;
+
+    public ClientAuthenticationFilter(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header == null || !header.startsWith("Bearer ");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            request.setAttribute(CLIENT_ATTRIBUTE,
+                    authService.getClientFromToken(request.getHeader(HttpHeaders.AUTHORIZATION)));
+        } catch (UnauthorizedException | NotFoundException e) {
+            request.setAttribute(ERROR_ATTRIBUTE, e.getMessage());
+        }
+        chain.doFilter(request, response);
+    }
+}
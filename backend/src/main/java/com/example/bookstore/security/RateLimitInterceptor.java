@@ -0,0 +1,60 @@
+package com.example.bookstore.security;
+
+import com.example.bookstore.cache.RateLimiter;
+import com.example.bookstore.exception.TooManyAttemptsException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimited limit = method.getMethodAnnotation(RateLimited.class);
+        if (limit == null) {
+            return true;
+        }
+        enforce(limit.value(), request.getRemoteAddr(), response);
+        if (!limit.keyParameter().isEmpty() && !limit.keyPolicy().isEmpty()) {
+            // Separate bucket per account so one address cannot spray usernames and
+            // many addresses cannot hammer a single account.
+            String value = request.getParameter(limit.keyParameter());
+            if (value != null && !value.isBlank()) {
+                enforce(limit.keyPolicy(), value.trim().toLowerCase(), response);
+            }
+        }
+        return true;
+    }
+
+    public HandlerInterceptor forPolicy(String policy) {
+        return new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                enforce(policy, request.getRemoteAddr(), response);
+                return true;
+            }
+        };
+    }
+
+    private void enforce(String policy, String key, HttpServletResponse response) {
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(policy, key);
+        if (!decision.allowed()) {
+            long retryAfterSeconds = decision.retryAfterSeconds();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            throw new TooManyAttemptsException("Too many requests. Please try again in " + retryAfterSeconds + " seconds");
+        }
+    }
+}
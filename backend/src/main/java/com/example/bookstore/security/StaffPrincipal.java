@@ -0,0 +1,9 @@
+package com.example.bookstore.security;
+
+import com.example.bookstore.enums.Role;
+
+import java.io.Serializable;
+
+public record StaffPrincipal(Integer adminId, String username, Role role, Integer pickupPointId,
+                             long loadedAt) implements Serializable {
+}
@@ -2,7 +2,7 @@ package com.example.bookstore.service;
 
 import com.example.bookstore.dto.AnalyticsPickupPointDto;
 import com.example.bookstore.exception.OrderException;
-import com.example.bookstore.model.Admin;
+import com.example.bookstore.security.StaffPrincipal;
 import com.example.bookstore.enums.Role;
 import com.example.bookstore.repository.AdminAnalyticsPickupPointRepository;
 import org.springframework.stereotype.Service;
@@ -16,7 +16,7 @@ public class AdminAnalyticsPickupPointService {
         this.repo = repo;
     }
 
-    public AnalyticsPickupPointDto getStats(int pickupPointId, Admin admin) {
+    public AnalyticsPickupPointDto getStats(int pickupPointId, StaffPrincipal admin) {
         validateAccess(pickupPointId, admin);
 
         return new AnalyticsPickupPointDto(
@@ -32,12 +32,12 @@ public class AdminAnalyticsPickupPointService {
         );
     }
 
-    private void validateAccess(int pickupPointId, Admin admin) {
-        if (admin.getRole() == Role.WORKER) {
-            if (admin.getPickUpPointId() == null) {
+    private void validateAccess(int pickupPointId, StaffPrincipal admin) {
+        if (admin.role() == Role.WORKER) {
+            if (admin.pickupPointId() == null) {
                 throw new OrderException("Worker must be assigned to a pickup point");
             }
-            if (admin.getPickUpPointId() != pickupPointId) {
+            if (admin.pickupPointId() != pickupPointId) {
                 throw new OrderException("Access denied: not your pickup point");
             }
         }
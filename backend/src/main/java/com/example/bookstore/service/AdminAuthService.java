@@ -1,51 +1,70 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.RateLimiter;
+import com.example.bookstore.cache.StaffPrincipalCache;
 import com.example.bookstore.dto.AdminDto;
 import com.example.bookstore.dto.PickUpPointDto;
 import com.example.bookstore.enums.Role;
 import com.example.bookstore.model.Admin;
 import com.example.bookstore.model.PickUpPoint;
 import com.example.bookstore.repository.AdminRepository;
-import com.example.bookstore.config.PasswordUtils;
 import com.example.bookstore.exception.NotFoundException;
 import com.example.bookstore.exception.AuthException;
 import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.exception.TooManyAttemptsException;
 import com.example.bookstore.repository.PickUpPointRepository;
+import com.example.bookstore.security.StaffPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpSession;
+import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 @Service
 public class AdminAuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AdminAuthService.class);
+
+    private static final Duration ATTEMPTS_WINDOW = Duration.ofMinutes(5);
+    private static final int MAX_ATTEMPTS = 5;
+
     private final StringRedisTemplate redisTemplate;
     private final EmailService emailService;
     private final AdminRepository adminRepository;
     private final PickUpPointRepository pickUpPointRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final StaffPrincipalCache staffPrincipalCache;
+    private final RateLimiter rateLimiter;
     private final Random random = new Random();
 
     public AdminAuthService(StringRedisTemplate redisTemplate,
                             EmailService emailService,
-                            AdminRepository adminRepository, PickUpPointRepository pickUpPointRepository) {
+                            AdminRepository adminRepository, PickUpPointRepository pickUpPointRepository,
+                            PasswordHashingService passwordHashingService,
+                            StaffPrincipalCache staffPrincipalCache,
+                            RateLimiter rateLimiter) {
         this.redisTemplate = redisTemplate;
         this.emailService = emailService;
         this.adminRepository = adminRepository;
         this.pickUpPointRepository = pickUpPointRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.staffPrincipalCache = staffPrincipalCache;
+        this.rateLimiter = rateLimiter;
     }
 
     public void sendTwoFaCode(String username, String passwordFromRequest) {
-        checkLoginAttempts(username);
+        recordLoginAttempt(username);
         Admin admin = adminRepository.findByUsername(username)
                 .orElseThrow(() -> new NotFoundException("Admin not found"));
 
-        if (!PasswordUtils.checkPassword(passwordFromRequest, admin.getPassword())) {
-            incrementLoginAttempts(username);
+        if (!passwordHashingService.matches(passwordFromRequest, admin.getPassword())) {
             throw new AuthException("Invalid credentials");
         }
+        rehashIfNeeded(admin, passwordFromRequest);
 
         clearLoginAttempts(username);
         String code = String.format("%06d", random.nextInt(1_000_000));
@@ -55,21 +74,20 @@ public class AdminAuthService {
     }
 
     public void verifyTwoFaCode(String username, String code, HttpSession session) {
-        check2FAAttempts(username);
+        record2FAAttempt(username);
         String key = "2fa:" + username;
         String codeInRedis = redisTemplate.opsForValue().get(key);
         if (codeInRedis == null) {
-            increment2FAAttempts(username);
             throw new UnauthorizedException("2FA code expired or invalid");
         }
 
         if (!codeInRedis.equals(code)) {
-            increment2FAAttempts(username);
             throw new UnauthorizedException("Invalid 2FA code");
         }
         redisTemplate.delete(key);
         clear2FAAttempts(username);
         session.setAttribute("ADMIN", username);
+        adminRepository.findByUsername(username).ifPresent(admin -> staffPrincipalCache.store(session, admin));
     }
 
     public boolean isAdminLoggedIn(HttpSession session) {
@@ -101,43 +119,29 @@ public class AdminAuthService {
     }
 
 
-    private void checkLoginAttempts(String username) {
-        String key = "login_attempts:" + username;
-        String attempts = redisTemplate.opsForValue().get(key);
-
-        if (attempts != null && Integer.parseInt(attempts) >= 5) {
-            throw new TooManyAttemptsException("Too many login attempts. Please try again in 5 minutes");
+    private void rehashIfNeeded(Admin admin, String password) {
+        if (!passwordHashingService.needsRehash(admin.getPassword())) {
+            return;
         }
-    }
-
-    private void incrementLoginAttempts(String username) {
-        String key = "login_attempts:" + username;
-        String currentAttempts = redisTemplate.opsForValue().get(key);
-
-        if (currentAttempts == null) {
-            redisTemplate.opsForValue().set(key, "1", 5, TimeUnit.MINUTES);
-        } else {
-            redisTemplate.opsForValue().set(key, String.valueOf(Integer.parseInt(currentAttempts) + 1), 5, TimeUnit.MINUTES);
+        try {
+            admin.setPassword(passwordHashingService.hash(password));
+            adminRepository.save(admin);
+        } catch (TooManyAttemptsException e) {
+            log.debug("Skipping password rehash for {}: {}", admin.getUsername(), e.getMessage());
         }
     }
 
-    private void check2FAAttempts(String username) {
-        String key = "2fa_attempts:" + username;
-        String attempts = redisTemplate.opsForValue().get(key);
-
-        if (attempts != null && Integer.parseInt(attempts) >= 5) {
-            throw new TooManyAttemptsException("Too many 2FA attempts. Please try again in 5 minutes");
+    private void recordLoginAttempt(String username) {
+        long attempts = rateLimiter.increment("login_attempts:" + username, ATTEMPTS_WINDOW);
+        if (attempts > MAX_ATTEMPTS) {
+            throw new TooManyAttemptsException("Too many login attempts. Please try again in 5 minutes");
         }
     }
 
-    private void increment2FAAttempts(String username) {
-        String key = "2fa_attempts:" + username;
-        String currentAttempts = redisTemplate.opsForValue().get(key);
-
-        if (currentAttempts == null) {
-            redisTemplate.opsForValue().set(key, "1", 5, TimeUnit.MINUTES);
-        } else {
-            redisTemplate.opsForValue().set(key, String.valueOf(Integer.parseInt(currentAttempts) + 1), 5, TimeUnit.MINUTES);
+    private void record2FAAttempt(String username) {
+        long attempts = rateLimiter.increment("2fa_attempts:" + username, ATTEMPTS_WINDOW);
+        if (attempts > MAX_ATTEMPTS) {
+            throw new TooManyAttemptsException("Too many 2FA attempts. Please try again in 5 minutes");
         }
     }
 
@@ -152,30 +156,33 @@ public class AdminAuthService {
     }
 
     public void requireAdminRole(HttpSession session) {
-        String username = (String) session.getAttribute("ADMIN");
-        if (username == null || username.trim().isEmpty()) {
-            throw new UnauthorizedException("Session expired. Please login again");
+        StaffPrincipal admin = resolveStaff(session, "Admin account not found");
+
+        if (admin.role() != Role.ADMIN) {
+            throw new UnauthorizedException("Access denied: ADMIN role required");
         }
+    }
 
-        Admin admin = adminRepository.findByUsername(username)
-                .orElseThrow(() -> new UnauthorizedException("Admin account not found"));
+    public StaffPrincipal requireStaffAccess(HttpSession session) {
+        StaffPrincipal staff = resolveStaff(session, "Account not found");
 
-        if (admin.getRole() != Role.ADMIN) {
-            throw new UnauthorizedException("Access denied: ADMIN role required");
+        if (staff.role() != Role.ADMIN && staff.role() != Role.WORKER) {
+            throw new UnauthorizedException("Access denied: Insufficient permissions");
         }
+        return staff;
     }
 
-    public Admin requireStaffAccess(HttpSession session) {
+    private StaffPrincipal resolveStaff(HttpSession session, String notFoundMessage) {
         String username = (String) session.getAttribute("ADMIN");
         if (username == null || username.trim().isEmpty()) {
             throw new UnauthorizedException("Session expired. Please login again");
         }
-        Admin staff = adminRepository.findByUsername(username)
-                .orElseThrow(() -> new UnauthorizedException("Account not found"));
-
-        if (staff.getRole() != Role.ADMIN && staff.getRole() != Role.WORKER) {
-            throw new UnauthorizedException("Access denied: Insufficient permissions");
+        StaffPrincipal principal = staffPrincipalCache.get(session, username);
+        if (principal != null) {
+            return principal;
         }
-        return staff;
+        Admin admin = adminRepository.findByUsername(username)
+                .orElseThrow(() -> new UnauthorizedException(notFoundMessage));
+        return staffPrincipalCache.store(session, admin);
     }
 }
\ No newline at end of file
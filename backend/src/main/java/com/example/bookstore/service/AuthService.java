@@ -1,38 +1,34 @@
 package com.example.bookstore.service;
 
-import com.example.bookstore.exception.NotFoundException;
+import com.example.bookstore.cache.ClientPrincipalCache;
+import com.example.bookstore.cache.TokenRevocationStore;
 import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.model.Client;
-import com.example.bookstore.repository.ClientRepository;
 import com.example.bookstore.security.JwtUtils;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @Service
 public class AuthService {
 
     private final JwtUtils jwtUtils;
-    private final ClientRepository clientRepository;
-    private final Set<String> invalidatedTokens = new HashSet<>();
+    private final ClientPrincipalCache clientPrincipalCache;
+    private final TokenRevocationStore tokenRevocationStore;
 
-    public AuthService(JwtUtils jwtUtils, ClientRepository clientRepository) {
+    public AuthService(JwtUtils jwtUtils, ClientPrincipalCache clientPrincipalCache,
+                       TokenRevocationStore tokenRevocationStore) {
         this.jwtUtils = jwtUtils;
-        this.clientRepository = clientRepository;
+        this.clientPrincipalCache = clientPrincipalCache;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     public Client getClientFromToken(String token) {
         String jwtToken = extractToken(token);
 
-        if (!validateToken(jwtToken)) {
+        if (isTokenInvalidated(jwtToken)) {
             throw new UnauthorizedException("Invalid or expired token.");
         }
 
-        String email = jwtUtils.getEmailFromToken(jwtToken);
-
-        return clientRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("User not found."));
+        return clientPrincipalCache.getClient(jwtToken);
     }
 
     public boolean validateToken(String jwtToken) {
@@ -40,11 +36,12 @@ public class AuthService {
     }
 
     public boolean isTokenInvalidated(String jwtToken) {
-        return invalidatedTokens.contains(jwtToken);
+        return tokenRevocationStore.isRevoked(jwtToken);
     }
 
     public void invalidateToken(String jwtToken) {
-        invalidatedTokens.add(jwtToken);
+        tokenRevocationStore.revoke(jwtToken, jwtUtils.parseClaims(jwtToken).getExpiration().toInstant());
+        clientPrincipalCache.forgetToken(jwtToken);
     }
 
     public String extractToken(String token) {
@@ -1,5 +1,7 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.CatalogSuggestIndex;
+import com.example.bookstore.cache.ReferenceDataCache;
 import com.example.bookstore.dto.AuthorDto;
 import com.example.bookstore.dto.CreateAuthorDto;
 import com.example.bookstore.dto.UpdateAuthorDto;
@@ -18,9 +20,16 @@ import java.util.stream.Collectors;
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final BookSearchService bookSearchService;
+    private final CatalogSuggestIndex catalogSuggestIndex;
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, ReferenceDataCache referenceDataCache,
+                         BookSearchService bookSearchService, CatalogSuggestIndex catalogSuggestIndex) {
         this.authorRepository = authorRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.bookSearchService = bookSearchService;
+        this.catalogSuggestIndex = catalogSuggestIndex;
     }
 
     @Transactional
@@ -42,6 +51,8 @@ public class AuthorService {
         author.setFullName(dto.getFullName().trim());
         author.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : null);
         Author saved = authorRepository.save(author);
+        referenceDataCache.invalidate(ReferenceDataCache.ReferenceType.AUTHOR);
+        catalogSuggestIndex.updateAuthor(saved.getAuthorId(), saved.getFullName());
         return convertToDto(saved);
     }
 
@@ -96,6 +107,9 @@ public class AuthorService {
         }
 
         Author updated = authorRepository.save(author);
+        referenceDataCache.invalidate(ReferenceDataCache.ReferenceType.AUTHOR);
+        bookSearchService.reindexAuthor(updated);
+        catalogSuggestIndex.updateAuthor(updated.getAuthorId(), updated.getFullName());
         return convertToDto(updated);
     }
 
@@ -1,57 +1,71 @@
 package com.example.bookstore.service;
 
-import com.example.bookstore.model.Book;
-import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.cache.CatalogFacetIndex;
+import com.example.bookstore.cache.StorefrontFeedCache;
+import com.example.bookstore.repository.BookAvailabilityRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Map;
 
 @Service
 public class BookAutoStatusService {
 
     private static final Logger log = LoggerFactory.getLogger(BookAutoStatusService.class);
 
-    private static final String STATUS_NOT_AVAILABLE = "NOT_AVAILABLE";
-    private static final String STATUS_AVAILABLE = "AVAILABLE";
+    public static final String STATUS_NOT_AVAILABLE = "NOT_AVAILABLE";
+    public static final String STATUS_AVAILABLE = "AVAILABLE";
 
-    private final BookRepository bookRepository;
+    private final BookAvailabilityRepository bookAvailabilityRepository;
+    private final StorefrontFeedCache storefrontFeedCache;
+    private final CatalogFacetIndex catalogFacetIndex;
 
-    public BookAutoStatusService(BookRepository bookRepository) {
-        this.bookRepository = bookRepository;
+    public BookAutoStatusService(BookAvailabilityRepository bookAvailabilityRepository,
+                                 StorefrontFeedCache storefrontFeedCache,
+                                 CatalogFacetIndex catalogFacetIndex) {
+        this.bookAvailabilityRepository = bookAvailabilityRepository;
+        this.storefrontFeedCache = storefrontFeedCache;
+        this.catalogFacetIndex = catalogFacetIndex;
+    }
+
+    public static String statusForStock(Integer stockQuantity, String currentStatus) {
+        boolean outOfStock = stockQuantity != null && stockQuantity == 0;
+        if (outOfStock && !STATUS_NOT_AVAILABLE.equals(currentStatus)) {
+            return STATUS_NOT_AVAILABLE;
+        }
+        if (!outOfStock && STATUS_NOT_AVAILABLE.equals(currentStatus)) {
+            return STATUS_AVAILABLE;
+        }
+        return currentStatus;
     }
 
     @Scheduled(fixedDelay = 600000)
     @Transactional
-    public void updateBookAvailability() {
-        log.info("Starting scheduled task: updateBookAvailability");
+    public void auditBookAvailability() {
+        log.info("Starting scheduled task: auditBookAvailability");
 
-        List<Book> allBooks = bookRepository.findAll();
+        Map<Integer, String> repaired = bookAvailabilityRepository.reconcileStatuses();
 
         int markedUnavailable = 0;
         int markedAvailable = 0;
-
-        for (Book book : allBooks) {
-            boolean outOfStock = book.getStockQuantity() != null && book.getStockQuantity() == 0;
-
-            if (outOfStock && !STATUS_NOT_AVAILABLE.equals(book.getStatus())) {
-                book.setStatus(STATUS_NOT_AVAILABLE);
+        for (Map.Entry<Integer, String> entry : repaired.entrySet()) {
+            if (STATUS_NOT_AVAILABLE.equals(entry.getValue())) {
                 markedUnavailable++;
-                log.debug("Book {} '{}' marked as NOT_AVAILABLE (stock: 0)", book.getBookId(), book.getTitle());
-
-            } else if (!outOfStock && STATUS_NOT_AVAILABLE.equals(book.getStatus())) {
-                book.setStatus(STATUS_AVAILABLE);
+            } else {
                 markedAvailable++;
-                log.debug("Book {} '{}' marked as AVAILABLE (stock: {})", book.getBookId(), book.getTitle(), book.getStockQuantity());
             }
+            catalogFacetIndex.updateStatus(entry.getKey(), entry.getValue());
         }
 
-        bookRepository.saveAll(allBooks);
+        if (!repaired.isEmpty()) {
+            storefrontFeedCache.invalidateBooks(repaired.keySet());
+            log.warn("Availability drift repaired for books {}", repaired.keySet());
+        }
 
-        log.info("Scheduled task completed: {} books → NOT_AVAILABLE, {} books → AVAILABLE",
-                markedUnavailable, markedAvailable);
+        log.info("Scheduled task completed: {} books → NOT_AVAILABLE, {} books → AVAILABLE, catalog by status {}",
+                markedUnavailable, markedAvailable, bookAvailabilityRepository.countByStatus());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.enums.CatalogFileFormat;
+import com.example.bookstore.record.BookExportDto;
+import com.example.bookstore.repository.BookExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class BookExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookExportService.class);
+
+    private static final String CSV_HEADER = "bookId,title,authorId,authorName,description,publicationDate,"
+            + "purchasePrice,rentalPrice,stockQuantity,status,discountPercent,updatedAt,genres,categories,imageUrls";
+
+    private final BookExportRepository bookExportRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookExportService(BookExportRepository bookExportRepository, ObjectMapper objectMapper) {
+        this.bookExportRepository = bookExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream output, CatalogFileFormat format) throws IOException {
+        long[] exported = {0};
+        try {
+            if (format == CatalogFileFormat.CSV) {
+                writeCsv(output, exported);
+            } else {
+                writeNdjson(output, exported);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Catalog export finished: {} books as {}", exported[0], format);
+    }
+
+    private void writeNdjson(OutputStream output, long[] exported) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(generator)) {
+            bookExportRepository.forEachBook(book -> {
+                try {
+                    writer.write(book);
+                    exported[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        output.write('\n');
+        output.flush();
+    }
+
+    private void writeCsv(OutputStream output, long[] exported) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        bookExportRepository.forEachBook(book -> {
+            try {
+                writeCsvRow(writer, book);
+                exported[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, BookExportDto book) throws IOException {
+        Object[] values = {
+                book.bookId(), book.title(), book.authorId(), book.authorName(), book.description(),
+                book.publicationDate(), book.purchasePrice(), book.rentalPrice(), book.stockQuantity(),
+                book.status(), book.discountPercent(), book.updatedAt(),
+                join(book.genres()), join(book.categories()), join(book.imageUrls())
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String join(List<String> values) {
+        return String.join("|", values);
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = Objects.toString(value);
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
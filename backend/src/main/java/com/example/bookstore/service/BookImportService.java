@@ -0,0 +1,334 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.cache.CatalogFacetIndex;
+import com.example.bookstore.cache.CatalogSuggestIndex;
+import com.example.bookstore.cache.ReferenceDataCache;
+import com.example.bookstore.cache.StorefrontFeedCache;
+import com.example.bookstore.dto.UpdateBookDto;
+import com.example.bookstore.enums.CatalogFileFormat;
+import com.example.bookstore.exception.ValidationException;
+import com.example.bookstore.repository.BookImportRepository;
+import com.example.bookstore.repository.BookSearchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final BookService bookService;
+    private final BookImportRepository bookImportRepository;
+    private final BookSearchRepository bookSearchRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final CatalogSuggestIndex catalogSuggestIndex;
+    private final StorefrontFeedCache storefrontFeedCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BookImportService(BookService bookService,
+                             BookImportRepository bookImportRepository,
+                             BookSearchRepository bookSearchRepository,
+                             ReferenceDataCache referenceDataCache,
+                             CatalogFacetIndex catalogFacetIndex,
+                             CatalogSuggestIndex catalogSuggestIndex,
+                             StorefrontFeedCache storefrontFeedCache,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper) {
+        this.bookService = bookService;
+        this.bookImportRepository = bookImportRepository;
+        this.bookSearchRepository = bookSearchRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.catalogSuggestIndex = catalogSuggestIndex;
+        this.storefrontFeedCache = storefrontFeedCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public Map<String, Object> importBooks(InputStream input, CatalogFileFormat format) throws IOException {
+        ImportResult result = new ImportResult();
+        Set<Integer> authorIds = referenceDataCache.getAuthorNames().keySet();
+        Set<Integer> genreIds = referenceDataCache.getGenreNames().keySet();
+        Set<Integer> categoryIds = referenceDataCache.getCategoryNames().keySet();
+
+        List<UpdateBookDto> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> batchRows = new ArrayList<>(BATCH_SIZE);
+
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource rows = format == CatalogFileFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+
+        while (true) {
+            UpdateBookDto dto;
+            try {
+                dto = rows.next();
+            } catch (ValidationException e) {
+                result.fail(rows.rowNumber(), e.getMessage());
+                continue;
+            }
+            if (dto == null) {
+                break;
+            }
+
+            List<String> errors = bookService.validateBookFields(dto, authorIds::contains,
+                    genreIds::contains, categoryIds::contains);
+            if (!errors.isEmpty()) {
+                result.fail(rows.rowNumber(), String.join("; ", errors));
+                continue;
+            }
+
+            batch.add(dto);
+            batchRows.add(rows.rowNumber());
+            if (batch.size() == BATCH_SIZE) {
+                flush(batch, batchRows, result);
+            }
+        }
+        flush(batch, batchRows, result);
+
+        if (result.imported > 0) {
+            catalogFacetIndex.invalidate();
+            catalogSuggestIndex.invalidate();
+            storefrontFeedCache.invalidate(StorefrontFeedCache.Feed.NEW, StorefrontFeedCache.Feed.DISCOUNTS);
+        }
+        log.info("Book import finished: {} imported, {} failed", result.imported, result.failed);
+        return result.toResponse();
+    }
+
+    private void flush(List<UpdateBookDto> batch, List<Long> batchRows, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Integer> bookIds = bookImportRepository.allocateBookIds(batch.size());
+                bookImportRepository.insertBooks(bookIds, batch);
+                bookSearchRepository.indexBooks(bookIds);
+            });
+            result.imported += batch.size();
+        } catch (Exception e) {
+            log.warn("Book import batch failed: {}", e.getMessage());
+            for (Long row : batchRows) {
+                result.fail(row, "Batch insert failed: " + e.getMessage());
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private static class ImportResult {
+        private long imported;
+        private long failed;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(Map.of("row", row, "message", message));
+            }
+        }
+
+        Map<String, Object> toResponse() {
+            Map<String, Object> response = new HashMap<>();
+            response.put("imported", imported);
+            response.put("failed", failed);
+            response.put("errors", errors);
+            response.put("errorsTruncated", failed > errors.size());
+            return response;
+        }
+    }
+
+    private interface RowSource {
+        UpdateBookDto next() throws IOException;
+
+        long rowNumber();
+    }
+
+    private class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private long row;
+
+        NdjsonRowSource(Reader reader) {
+            this.reader = (BufferedReader) reader;
+        }
+
+        @Override
+        public UpdateBookDto next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                row++;
+            } while (line.isBlank());
+
+            try {
+                return objectMapper.readValue(line, UpdateBookDto.class);
+            } catch (JsonProcessingException e) {
+                throw new ValidationException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public long rowNumber() {
+            return row;
+        }
+    }
+
+    private static class CsvRowSource implements RowSource {
+        private final Reader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long row;
+        private boolean finished;
+
+        CsvRowSource(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                finished = true;
+                return;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new ValidationException("CSV header must contain a 'title' column");
+            }
+        }
+
+        @Override
+        public UpdateBookDto next() throws IOException {
+            List<String> record;
+            do {
+                record = finished ? null : readRecord();
+                if (record == null) {
+                    return null;
+                }
+                row++;
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            try {
+                UpdateBookDto dto = new UpdateBookDto();
+                dto.setTitle(text(record, "title"));
+                dto.setDescription(text(record, "description"));
+                dto.setAuthorId(integer(record, "authorId"));
+                dto.setPurchasePrice(decimal(record, "purchasePrice"));
+                dto.setRentalPrice(decimal(record, "rentalPrice"));
+                dto.setStockQuantity(integer(record, "stockQuantity"));
+                dto.setStatus(text(record, "status"));
+                String discount = text(record, "discountPercent");
+                dto.setDiscountPercent(discount != null ? new BigDecimal(discount) : null);
+                dto.setPublicationDate(dateTime(text(record, "publicationDate")));
+                dto.setGenreIds(integers(text(record, "genreIds")));
+                dto.setCategoryIds(integers(text(record, "categoryIds")));
+                String images = text(record, "imageUrls");
+                dto.setImageUrls(images != null ? Arrays.asList(images.split("\\|")) : null);
+                return dto;
+            } catch (RuntimeException e) {
+                throw new ValidationException("Malformed value: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public long rowNumber() {
+            return row;
+        }
+
+        private String text(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private Integer integer(List<String> record, String column) {
+            String value = text(record, column);
+            return value != null ? Integer.valueOf(value) : null;
+        }
+
+        private Double decimal(List<String> record, String column) {
+            String value = text(record, column);
+            return value != null ? Double.valueOf(value) : null;
+        }
+
+        private static LocalDateTime dateTime(String value) {
+            if (value == null) {
+                return null;
+            }
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        }
+
+        private static List<Integer> integers(String value) {
+            if (value == null) {
+                return null;
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (String part : value.split("\\|")) {
+                if (!part.isBlank()) {
+                    ids.add(Integer.valueOf(part.trim()));
+                }
+            }
+            return ids;
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    break;
+                } else if (ch != '\r') {
+                    field.append(ch);
+                }
+            }
+            if (!any) {
+                finished = true;
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.model.Author;
+import com.example.bookstore.model.Book;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.BookSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BookSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchService.class);
+
+    private final BookSearchRepository bookSearchRepository;
+    private final BookRepository bookRepository;
+    private final CatalogPageAssembler catalogPageAssembler;
+
+    public BookSearchService(BookSearchRepository bookSearchRepository,
+                             BookRepository bookRepository,
+                             CatalogPageAssembler catalogPageAssembler) {
+        this.bookSearchRepository = bookSearchRepository;
+        this.bookRepository = bookRepository;
+        this.catalogPageAssembler = catalogPageAssembler;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> search(String query, int page, int size) {
+        String normalized = query.trim();
+        List<Integer> ids = bookSearchRepository.search(normalized, size + 1, page * size);
+
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        Map<Integer, Book> booksById = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getBookId, Function.identity()));
+        List<Book> ranked = ids.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("books", catalogPageAssembler.toBookDtos(ranked));
+        response.put("query", normalized);
+        response.put("currentPage", page);
+        response.put("hasNext", hasNext);
+        response.put("hasPrevious", page > 0);
+
+        return response;
+    }
+
+    public void indexBook(Book book) {
+        bookSearchRepository.upsertDocument(book.getBookId(), book.getTitle(), book.getAuthorId());
+    }
+
+    public void reindexAuthor(Author author) {
+        int updated = bookSearchRepository.updateAuthorName(author.getAuthorId(), author.getFullName());
+        log.debug("Reindexed {} books for author {}", updated, author.getAuthorId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (bookSearchRepository.countDocuments() == 0) {
+            int indexed = bookSearchRepository.rebuildAll();
+            log.info("Built search index for {} books", indexed);
+        }
+    }
+}
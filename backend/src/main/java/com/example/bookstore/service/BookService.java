@@ -1,17 +1,29 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.BestsellerRanking;
+import com.example.bookstore.cache.CatalogFacetIndex;
+import com.example.bookstore.cache.CatalogSuggestIndex;
+import com.example.bookstore.cache.ReferenceDataCache;
+import com.example.bookstore.cache.StockHoldStore;
+import com.example.bookstore.cache.StorefrontFeedCache;
 import com.example.bookstore.dto.AdminBookDto;
 import com.example.bookstore.dto.BookDto;
 import com.example.bookstore.dto.BookDetailDto;
 import com.example.bookstore.dto.UpdateBookDto;
+import com.example.bookstore.enums.InventoryReason;
 import com.example.bookstore.exception.BookUpdateException;
 import com.example.bookstore.exception.NotFoundException;
 import com.example.bookstore.exception.ValidationException;
 import com.example.bookstore.model.*;
+import com.example.bookstore.record.BookRatingSummary;
+import com.example.bookstore.record.CatalogCursor;
+import com.example.bookstore.record.CatalogSelection;
 import com.example.bookstore.repository.*;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +45,18 @@ public class BookService {
     private final BookGenreRepository bookGenreRepository;
     private final BookCategoryRepository bookCategoryRepository;
     private final BookImageRepository bookImageRepository;
+    private final CatalogPageAssembler catalogPageAssembler;
+    private final ReferenceDataCache referenceDataCache;
+    private final BookSearchService bookSearchService;
+    private final BookRatingSummaryRepository bookRatingSummaryRepository;
+    private final StorefrontFeedCache storefrontFeedCache;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final BestsellerRanking bestsellerRanking;
+    private final CatalogSuggestIndex catalogSuggestIndex;
+    private final StockHoldStore stockHoldStore;
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final CatalogFilterRepository catalogFilterRepository;
+    private final StockReservationRepository stockReservationRepository;
 
     @Autowired
     public BookService(BookRepository bookRepository,
@@ -40,7 +65,19 @@ public class BookService {
                        CategoryRepository categoryRepository,
                        BookGenreRepository bookGenreRepository,
                        BookCategoryRepository bookCategoryRepository,
-                       BookImageRepository bookImageRepository) {
+                       BookImageRepository bookImageRepository,
+                       CatalogPageAssembler catalogPageAssembler,
+                       ReferenceDataCache referenceDataCache,
+                       BookSearchService bookSearchService,
+                       BookRatingSummaryRepository bookRatingSummaryRepository,
+                       StorefrontFeedCache storefrontFeedCache,
+                       CatalogFacetIndex catalogFacetIndex,
+                       BestsellerRanking bestsellerRanking,
+                       CatalogSuggestIndex catalogSuggestIndex,
+                       StockHoldStore stockHoldStore,
+                       InventoryLedgerRepository inventoryLedgerRepository,
+                       CatalogFilterRepository catalogFilterRepository,
+                       StockReservationRepository stockReservationRepository) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.genreRepository = genreRepository;
@@ -48,29 +85,128 @@ public class BookService {
         this.bookGenreRepository = bookGenreRepository;
         this.bookCategoryRepository = bookCategoryRepository;
         this.bookImageRepository = bookImageRepository;
+        this.catalogPageAssembler = catalogPageAssembler;
+        this.referenceDataCache = referenceDataCache;
+        this.bookSearchService = bookSearchService;
+        this.bookRatingSummaryRepository = bookRatingSummaryRepository;
+        this.storefrontFeedCache = storefrontFeedCache;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.bestsellerRanking = bestsellerRanking;
+        this.catalogSuggestIndex = catalogSuggestIndex;
+        this.stockHoldStore = stockHoldStore;
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.catalogFilterRepository = catalogFilterRepository;
+        this.stockReservationRepository = stockReservationRepository;
     }
 
     @Transactional(readOnly = true)
-    public Map<String, Object> getBooks(List<Integer> genreIds, List<Integer> categoryIds,
-                                        String title, String sortOrder, int page, int size) {
+    public CatalogSelection selectCatalog(List<Integer> genreIds, List<Integer> categoryIds, String title) {
         genreIds = (genreIds == null || genreIds.isEmpty()) ? null : genreIds;
         categoryIds = (categoryIds == null || categoryIds.isEmpty()) ? null : categoryIds;
-        String pattern = null;
+
+        BitSet matchingTitle = null;
         if (title != null && !title.isBlank()) {
-            pattern = "%" + title.trim() + "%";
+            matchingTitle = new BitSet();
+            for (Integer bookId : bookRepository.findIdsByTitleOrAuthor("%" + title.trim() + "%")) {
+                matchingTitle.set(bookId);
+            }
         }
 
-        Sort.Direction direction = "desc".equalsIgnoreCase(sortOrder)
-                ? Sort.Direction.DESC
-                : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, "purchasePrice");
+        Map<String, Object> facets = catalogFacetIndex.facetCounts(genreIds, categoryIds, matchingTitle);
+        BitSet bookIds = matchingTitle;
+        if (genreIds != null || categoryIds != null) {
+            bookIds = catalogFacetIndex.match(genreIds, categoryIds);
+            if (matchingTitle != null) {
+                bookIds.and(matchingTitle);
+            }
+        }
+        return new CatalogSelection(bookIds, facets);
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Book> bookPage = bookRepository.findFiltered(genreIds, categoryIds, pattern, pageable);
+    @Transactional(readOnly = true)
+    public Page<Book> findBooksPage(CatalogSelection selection, String sortOrder, int page, int size) {
+        boolean descending = "desc".equalsIgnoreCase(sortOrder);
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, "purchasePrice", "bookId"));
+        if (!selection.filtered()) {
+            return bookRepository.findAll(pageable);
+        }
+        if (selection.bookIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        List<Integer> pageIds = catalogFilterRepository.findPageIds(selection.bookIds(), descending,
+                pageable.getOffset(), size);
+        return new PageImpl<>(loadInOrder(pageIds), pageable, selection.bookIds().cardinality());
+    }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> toPageResponse(Page<Book> bookPage) {
         return getStringObjectMap(bookPage);
     }
 
+    @Transactional(readOnly = true)
+    public List<Book> findBooksAfter(CatalogSelection selection, String sortOrder, String after, int size) {
+        CatalogCursor cursor = (after == null || after.isBlank()) ? null : CatalogCursor.decode(after);
+        Double afterPrice = cursor != null ? cursor.purchasePrice() : null;
+        Integer afterId = cursor != null ? cursor.bookId() : null;
+        boolean descending = "desc".equalsIgnoreCase(sortOrder);
+
+        if (selection.filtered()) {
+            if (selection.bookIds().isEmpty()) {
+                return List.of();
+            }
+            return loadInOrder(catalogFilterRepository.findIdsAfter(selection.bookIds(), descending,
+                    afterPrice, afterId, size + 1));
+        }
+
+        Limit limit = Limit.of(size + 1);
+        return descending
+                ? bookRepository.findAfterDesc(afterPrice, afterId, limit)
+                : bookRepository.findAfterAsc(afterPrice, afterId, limit);
+    }
+
+    private List<Book> loadInOrder(List<Integer> bookIds) {
+        Map<Integer, Book> booksById = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getBookId, book -> book));
+        return bookIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> toKeysetResponse(List<Book> books, int size) {
+        boolean hasNext = books.size() > size;
+        if (hasNext) {
+            books = books.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Book last = books.get(books.size() - 1);
+            nextCursor = new CatalogCursor(last.getPurchasePrice(), last.getBookId()).encode();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("books", catalogPageAssembler.toBookDtos(books));
+        response.put("size", size);
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", nextCursor);
+
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Book> findBook(Integer id) {
+        return bookRepository.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public BookDto toCatalogDto(Book book) {
+        return convertToBookDto(book);
+    }
+
     @Transactional(readOnly = true)
     public BookDto getBookByIdForCatalog(Integer id) {
         Optional<Book> bookOptional = bookRepository.findById(id);
@@ -79,25 +215,27 @@ public class BookService {
 
     @Transactional(readOnly = true)
     public Map<String, Object> getDiscountedBooks(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Book> bookPage = bookRepository.findDiscountedBooks(pageable);
+        return storefrontFeedCache.get(StorefrontFeedCache.Feed.DISCOUNTS, page, size, () -> {
+            Pageable pageable = PageRequest.of(page, size);
+            Page<Book> bookPage = bookRepository.findDiscountedBooks(pageable);
 
-        return getStringObjectMap(bookPage);
+            return getStringObjectMap(bookPage);
+        });
     }
 
     @Transactional(readOnly = true)
     public Map<String, Object> getNewBooks(int page, int size) {
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Book> bookPage = bookRepository.findNewBooks(oneMonthAgo, pageable);
+        return storefrontFeedCache.get(StorefrontFeedCache.Feed.NEW, page, size, () -> {
+            LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
+            Pageable pageable = PageRequest.of(page, size);
+            Page<Book> bookPage = bookRepository.findNewBooks(oneMonthAgo, pageable);
 
-        return getStringObjectMap(bookPage);
+            return getStringObjectMap(bookPage);
+        });
     }
 
     private Map<String, Object> getStringObjectMap(Page<Book> bookPage) {
-        List<BookDto> bookDtos = bookPage.getContent().stream()
-                .map(this::convertToBookDto)
-                .collect(Collectors.toList());
+        List<BookDto> bookDtos = catalogPageAssembler.toBookDtos(bookPage.getContent());
 
         Map<String, Object> response = new HashMap<>();
         response.put("books", bookDtos);
@@ -111,19 +249,29 @@ public class BookService {
     }
 
     @Transactional(readOnly = true)
-    public Map<String, Object> getBestsellers(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Book> bookPage = bookRepository.findBestsellers(pageable);
-
-        return getStringObjectMap(bookPage);
+    public Map<String, Object> getBestsellers(BestsellerRanking.Window window, int page, int size) {
+        StorefrontFeedCache.Feed feed = window == BestsellerRanking.Window.WEEK
+                ? StorefrontFeedCache.Feed.BESTSELLERS_WEEK
+                : StorefrontFeedCache.Feed.BESTSELLERS_MONTH;
+        return storefrontFeedCache.get(feed, page, size, () -> {
+            List<Integer> rankedIds = bestsellerRanking.getPage(window, page, size);
+            Map<Integer, Book> booksById = bookRepository.findAllById(rankedIds).stream()
+                    .collect(Collectors.toMap(Book::getBookId, book -> book));
+            List<Book> books = rankedIds.stream()
+                    .map(booksById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            Page<Book> bookPage = new PageImpl<>(books, PageRequest.of(page, size), bestsellerRanking.count(window));
+            return getStringObjectMap(bookPage);
+        });
     }
 
     private BookDto convertToBookDto(Book book) {
         BookDto dto = new BookDto();
         dto.setBookId(book.getBookId());
         dto.setTitle(book.getTitle());
-        Optional<Author> authorOptional = authorRepository.findById(book.getAuthorId());
-        authorOptional.ifPresent(author -> dto.setAuthorName(author.getFullName()));
+        dto.setAuthorName(referenceDataCache.getAuthorName(book.getAuthorId()));
         dto.setDescription(book.getDescription());
         dto.setPublicationDate(book.getPublicationDate());
         dto.setPurchasePrice(book.getPurchasePrice());
@@ -137,20 +285,14 @@ public class BookService {
 
         List<BookGenre> bookGenres = bookGenreRepository.findByBookId(book.getBookId());
         List<String> genres = bookGenres.stream()
-                .map(bookGenre -> {
-                    Optional<Genre> genreOptional = genreRepository.findById(bookGenre.getGenreId());
-                    return genreOptional.map(Genre::getName).orElse(null);
-                })
+                .map(bookGenre -> referenceDataCache.getGenreName(bookGenre.getGenreId()))
                 .filter(text -> text != null)
                 .collect(Collectors.toList());
         dto.setGenres(genres);
 
         List<BookCategory> bookCategories = bookCategoryRepository.findByBookId(book.getBookId());
         List<String> categories = bookCategories.stream()
-                .map(bookCategory -> {
-                    Optional<Category> categoryOptional = categoryRepository.findById(bookCategory.getCategoryId());
-                    return categoryOptional.map(Category::getName).orElse(null);
-                })
+                .map(bookCategory -> referenceDataCache.getCategoryName(bookCategory.getCategoryId()))
                 .filter(text -> text != null)
                 .collect(Collectors.toList());
         dto.setCategories(categories);
@@ -208,14 +350,23 @@ public class BookService {
 
     @Transactional(readOnly = true)
     public BookDetailDto getBookDetailById(Integer id) {
-        BookDto basicBook = getBookByIdForCatalog(id);
-        if (basicBook == null) {
-            return null;
-        }
+        return findBook(id)
+                .map(book -> toDetailDto(book, getRatingSummary(id)))
+                .orElse(null);
+    }
+
+    public BookRatingSummary getRatingSummary(Integer bookId) {
+        return bookRatingSummaryRepository.findByBookId(bookId)
+                .orElseGet(() -> BookRatingSummary.empty(bookId));
+    }
+
+    @Transactional(readOnly = true)
+    public BookDetailDto toDetailDto(Book book, BookRatingSummary rating) {
         BookDetailDto detailDto = new BookDetailDto();
-        BeanUtils.copyProperties(basicBook, detailDto);
-        detailDto.setAverageRating(bookRepository.getAverageRatingByBookId(id));
-        detailDto.setTotalReviews(bookRepository.getTotalReviewsByBookId(id));
+        BeanUtils.copyProperties(convertToBookDto(book), detailDto);
+        detailDto.setAverageRating(rating.averageRating());
+        detailDto.setTotalReviews(rating.reviewCount());
+        detailDto.setRatingHistogram(rating.histogram());
         return detailDto;
     }
 
@@ -229,12 +380,16 @@ public class BookService {
         book.setPurchasePrice(dto.getPurchasePrice());
         book.setRentalPrice(dto.getRentalPrice());
         book.setStockQuantity(dto.getStockQuantity() != null ? dto.getStockQuantity() : 0);
-        book.setStatus(dto.getStatus() != null ? dto.getStatus() : "AVAILABLE");
+        book.setStatus(BookAutoStatusService.statusForStock(book.getStockQuantity(),
+                dto.getStatus() != null ? dto.getStatus() : BookAutoStatusService.STATUS_AVAILABLE));
         book.setDiscountPercent(dto.getDiscountPercent() != null ? dto.getDiscountPercent() : BigDecimal.ZERO);
         book.setPublicationDate(dto.getPublicationDate());
         book.setCreatedAt(LocalDateTime.now());
         book.setUpdatedAt(LocalDateTime.now());
         book = bookRepository.save(book);
+        if (book.getStockQuantity() != 0) {
+            inventoryLedgerRepository.record(book.getBookId(), book.getStockQuantity(), InventoryReason.INITIAL, null, null);
+        }
         if (dto.getCategoryIds() != null && !dto.getCategoryIds().isEmpty()) {
             updateBookCategories(book.getBookId(), dto.getCategoryIds());
         }
@@ -247,6 +402,14 @@ public class BookService {
             updateBookImages(book, dto.getImageUrls());
         }
 
+        bookSearchService.indexBook(book);
+        catalogFacetIndex.updateStatus(book.getBookId(), book.getStatus());
+        catalogSuggestIndex.updateBook(book.getBookId(), book.getTitle());
+        if (book.getDiscountPercent().signum() > 0) {
+            storefrontFeedCache.invalidate(StorefrontFeedCache.Feed.NEW, StorefrontFeedCache.Feed.DISCOUNTS);
+        } else {
+            storefrontFeedCache.invalidate(StorefrontFeedCache.Feed.NEW);
+        }
         return convertToAdminBookDto(book);
     }
 
@@ -256,13 +419,15 @@ public class BookService {
                 .orElseThrow(() -> new NotFoundException("Book not found with id: " + bookId));
 
         validateBookData(dto);
+        int stockDelta = Objects.requireNonNullElse(dto.getStockQuantity(), 0)
+                - Objects.requireNonNullElse(book.getStockQuantity(), 0);
         book.setTitle(dto.getTitle().trim());
         book.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : null);
         book.setAuthorId(dto.getAuthorId());
         book.setPurchasePrice(dto.getPurchasePrice());
         book.setRentalPrice(dto.getRentalPrice());
         book.setStockQuantity(dto.getStockQuantity());
-        book.setStatus(dto.getStatus());
+        book.setStatus(BookAutoStatusService.statusForStock(dto.getStockQuantity(), dto.getStatus()));
         book.setDiscountPercent(dto.getDiscountPercent());
         book.setPublicationDate(dto.getPublicationDate());
         updateBookCategories(bookId, dto.getCategoryIds());
@@ -270,11 +435,36 @@ public class BookService {
         updateBookImages(book, dto.getImageUrls());
 
         book.setUpdatedAt(LocalDateTime.now());
+        if (stockDelta != 0) {
+            inventoryLedgerRepository.record(bookId, stockDelta, InventoryReason.ADJUSTMENT, null, null);
+        }
+        stockHoldStore.evictStock(bookId);
+        bookSearchService.indexBook(book);
+        catalogFacetIndex.updateStatus(book.getBookId(), book.getStatus());
+        catalogSuggestIndex.updateBook(book.getBookId(), book.getTitle());
+        storefrontFeedCache.invalidateBooks(List.of(bookId));
+        if (book.getDiscountPercent() != null && book.getDiscountPercent().signum() > 0) {
+            storefrontFeedCache.invalidate(StorefrontFeedCache.Feed.NEW, StorefrontFeedCache.Feed.DISCOUNTS);
+        } else {
+            storefrontFeedCache.invalidate(StorefrontFeedCache.Feed.NEW);
+        }
 
         return convertToAdminBookDto(book);
     }
 
     private void validateBookData(UpdateBookDto dto) {
+        List<String> errors = validateBookFields(dto,
+                authorId -> authorRepository.existsById(authorId),
+                genreId -> genreRepository.existsById(genreId),
+                categoryId -> categoryRepository.existsById(categoryId));
+
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Validation failed: " + String.join("; ", errors));
+        }
+    }
+
+    List<String> validateBookFields(UpdateBookDto dto, Predicate<Integer> authorExists,
+                                    Predicate<Integer> genreExists, Predicate<Integer> categoryExists) {
         List<String> errors = new ArrayList<>();
 
         if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
@@ -285,7 +475,7 @@ public class BookService {
 
         if (dto.getAuthorId() == null) {
             errors.add("Author is required");
-        } else if (!authorRepository.existsById(dto.getAuthorId())) {
+        } else if (!authorExists.test(dto.getAuthorId())) {
             errors.add("Author with id " + dto.getAuthorId() + " does not exist");
         }
 
@@ -329,7 +519,7 @@ public class BookService {
 
         if (dto.getCategoryIds() != null && !dto.getCategoryIds().isEmpty()) {
             for (Integer categoryId : dto.getCategoryIds()) {
-                if (!categoryRepository.existsById(categoryId)) {
+                if (!categoryExists.test(categoryId)) {
                     errors.add("Category with id " + categoryId + " does not exist");
                 }
             }
@@ -337,15 +527,13 @@ public class BookService {
 
         if (dto.getGenreIds() != null && !dto.getGenreIds().isEmpty()) {
             for (Integer genreId : dto.getGenreIds()) {
-                if (!genreRepository.existsById(genreId)) {
+                if (!genreExists.test(genreId)) {
                     errors.add("Genre with id " + genreId + " does not exist");
                 }
             }
         }
 
-        if (!errors.isEmpty()) {
-            throw new ValidationException("Validation failed: " + String.join("; ", errors));
-        }
+        return errors;
     }
 
     private void updateBookCategories(Integer bookId, List<Integer> newIds) {
@@ -371,6 +559,7 @@ public class BookService {
                     return bc;
                 }).collect(Collectors.toList());
         bookCategoryRepository.saveAll(toAdd);
+        catalogFacetIndex.replaceCategories(bookId, distinctNewIds);
     }
 
     private void updateBookGenres(Integer bookId, List<Integer> newIds) {
@@ -396,6 +585,7 @@ public class BookService {
                     return bg;
                 }).collect(Collectors.toList());
         bookGenreRepository.saveAll(toAdd);
+        catalogFacetIndex.replaceGenres(bookId, distinctNewIds);
     }
 
     private void updateBookImages(Book book, List<String> urls) {
@@ -413,12 +603,24 @@ public class BookService {
 
     @Transactional
     public void incrementBookStock(Integer bookId, Integer quantity) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new NotFoundException("Book not found: " + bookId));
+        incrementBookStock(bookId, quantity, InventoryReason.RESTOCK, null, null);
+    }
 
-        Integer currentStock = book.getStockQuantity();
-        book.setStockQuantity(currentStock + quantity);
-        bookRepository.save(book);
+    @Transactional
+    public void returnToStock(OrderItem item, InventoryReason reason) {
+        incrementBookStock(item.getBookId(), 1, reason, item.getOrderId(), item.getOrderItemId());
+    }
+
+    private void incrementBookStock(Integer bookId, Integer quantity, InventoryReason reason,
+                                    Integer orderId, Integer orderItemId) {
+        StockReservationRepository.StockChange change = stockReservationRepository.addStock(bookId, quantity)
+                .orElseThrow(() -> new NotFoundException("Book not found: " + bookId));
+        if (!Objects.equals(change.status(), change.previousStatus())) {
+            catalogFacetIndex.updateStatus(bookId, change.status());
+        }
+        storefrontFeedCache.invalidateBooks(List.of(bookId));
+        inventoryLedgerRepository.record(bookId, quantity, reason, orderId, orderItemId);
+        stockHoldStore.evictStock(bookId);
     }
 
     private AdminBookDto convertToAdminBookDto(Book book) {
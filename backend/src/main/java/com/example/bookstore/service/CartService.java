@@ -1,162 +1,261 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.ReferenceDataCache;
+import com.example.bookstore.cache.StockHoldStore;
 import com.example.bookstore.dto.CartDto;
 import com.example.bookstore.dto.CartItemDto;
-import com.example.bookstore.model.Cart;
+import com.example.bookstore.dto.CartOperationRequest;
 import com.example.bookstore.model.CartItem;
 import com.example.bookstore.model.Book;
 import com.example.bookstore.enums.ItemType;
 import com.example.bookstore.model.Client;
-import com.example.bookstore.model.Author;
-import com.example.bookstore.model.BookImage;
-import com.example.bookstore.repository.AuthorRepository;
-import com.example.bookstore.repository.CartRepository;
-import com.example.bookstore.repository.CartItemRepository;
+import com.example.bookstore.repository.BookImageRepository;
 import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.CartStore;
 import com.example.bookstore.exception.CartException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class CartService {
 
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
+
     private static final int MAX_CART_ITEMS = 4;
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final BookRepository bookRepository;
-    private final AuthService authService;
-    private final AuthorRepository authorRepository;
+    private final BookImageRepository bookImageRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final StockHoldStore stockHoldStore;
 
 
-    public CartService(CartRepository cartRepository,
-                       CartItemRepository cartItemRepository,
+    public CartService(CartStore cartStore,
                        BookRepository bookRepository,
-                       AuthService authService, AuthorRepository authorRepository) {
-        this.cartRepository = cartRepository;
-        this.cartItemRepository = cartItemRepository;
+                       BookImageRepository bookImageRepository,
+                       ReferenceDataCache referenceDataCache,
+                       StockHoldStore stockHoldStore) {
+        this.cartStore = cartStore;
         this.bookRepository = bookRepository;
-        this.authService = authService;
-        this.authorRepository = authorRepository;
-    }
-
-    public Cart getOrCreateCart(Integer userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart cart = new Cart();
-                    cart.setUserId(userId);
-                    cart.setCreatedAt(LocalDateTime.now());
-                    cart.setUpdatedAt(LocalDateTime.now());
-                    return cartRepository.save(cart);
-                });
+        this.bookImageRepository = bookImageRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.stockHoldStore = stockHoldStore;
     }
 
     @Transactional
-    public CartItem addItem(String token, Integer bookId, ItemType type, Integer rentalDays) {
-        Client client = authService.getClientFromToken(token);
-        Cart cart = getOrCreateCart(client.getUserId());
-        long currentItemsCount = cartItemRepository.countByCartId(cart.getCartId());
-        if (currentItemsCount >= MAX_CART_ITEMS) {
-            throw new CartException("Cart is full. Maximum " + MAX_CART_ITEMS + " items allowed");
-        }
+    public CartItem addItem(Client client, Integer bookId, ItemType type, Integer rentalDays) {
+        Integer cartId = cartStore.getOrCreateCartId(client.getUserId());
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new CartException("Book not found"));
-        validateBookAvailability(cart.getCartId(), bookId, book);
+        validateBookAvailability(cartStore.findItems(client.getUserId()), bookId, book);
+        holdStock(cartId, book, 1);
         CartItem item = new CartItem();
-        item.setCartId(cart.getCartId());
+        item.setCartId(cartId);
         item.setBookId(bookId);
         item.setType(type);
         item.setRentalDays(rentalDays);
         item.setAddedAt(LocalDateTime.now());
 
-        cart.setUpdatedAt(LocalDateTime.now());
-        cartRepository.save(cart);
-
-        return cartItemRepository.save(item);
+        return cartStore.addItem(client.getUserId(), item, MAX_CART_ITEMS);
     }
 
     @Transactional
-    public void removeItem(String token, Integer cartItemId) {
-        Client client = authService.getClientFromToken(token);
-        Optional<Cart> optionalCart = cartRepository.findByUserId(client.getUserId());
-        if (optionalCart.isEmpty()) return;
-        Cart cart = optionalCart.get();
-        Optional<CartItem> cartItem = cartItemRepository.findById(cartItemId);
-        if (cartItem.isEmpty() || !cartItem.get().getCartId().equals(cart.getCartId())) {
-            throw new CartException("Cart item not found");
-        }
-        cartItemRepository.deleteById(cartItemId);
-        long remainingItems = cartItemRepository.countByCartId(cart.getCartId());
+    public void removeItem(Client client, Integer cartItemId) {
+        Optional<Integer> cartId = cartStore.findCartId(client.getUserId());
+        if (cartId.isEmpty()) return;
+        CartItem cartItem = cartStore.findItem(client.getUserId(), cartItemId)
+                .orElseThrow(() -> new CartException("Cart item not found"));
+        long remainingItems = cartStore.removeItem(client.getUserId(), cartItem);
+        stockHoldStore.release(cartItem.getBookId(), cartId.get());
         if (remainingItems == 0) {
-            cartItemRepository.deleteByCartId(cart.getCartId());
-            cartRepository.deleteByUserId(client.getUserId());
-        } else {
-            cart.setUpdatedAt(LocalDateTime.now());
-            cartRepository.save(cart);
+            stockHoldStore.releaseCart(cartId.get());
         }
     }
 
     @Transactional
-    public void clearCart(String token) {
-        Client client = authService.getClientFromToken(token);
-        Optional<Cart> optionalCart = cartRepository.findByUserId(client.getUserId());
-        if (optionalCart.isEmpty()) {
+    public void clearCart(Client client) {
+        Optional<Integer> cartId = cartStore.findCartId(client.getUserId());
+        if (cartId.isEmpty()) {
             throw new CartException("Cart is empty or not found");
         }
-        cartRepository.deleteCartByUserIdCascade(client.getUserId());
+        cartStore.clear(client.getUserId());
+        stockHoldStore.releaseCart(cartId.get());
     }
 
-    public CartDto getCartContents(String token) {
-        Client client = authService.getClientFromToken(token);
-        Optional<Cart> cartOpt = cartRepository.findByUserId(client.getUserId());
-        if (cartOpt.isEmpty()) {
+    @Transactional
+    public CartDto applyBatch(Client client, List<CartOperationRequest> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new CartException("No cart operations provided");
+        }
+        Integer cartId = cartStore.getOrCreateCartId(client.getUserId());
+        List<CartItem> current = cartStore.lockItems(client.getUserId());
+
+        List<CartItem> updated = new ArrayList<>(current.size());
+        for (CartItem item : current) {
+            updated.add(copyOf(item));
+        }
+        for (CartOperationRequest operation : operations) {
+            applyOperation(updated, cartId, operation);
+        }
+        if (updated.size() > MAX_CART_ITEMS) {
+            throw new CartException("Cart is full. Maximum " + MAX_CART_ITEMS + " items allowed");
+        }
+
+        Map<Integer, Integer> heldDelta = new TreeMap<>();
+        current.forEach(item -> heldDelta.merge(item.getBookId(), -1, Integer::sum));
+        updated.forEach(item -> heldDelta.merge(item.getBookId(), 1, Integer::sum));
+        heldDelta.values().removeIf(delta -> delta == 0);
+
+        List<Integer> addedBookIds = heldDelta.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<Integer, Book> books = bookRepository.findAllById(addedBookIds).stream()
+                .collect(Collectors.toMap(Book::getBookId, book -> book));
+        Map<Integer, Long> copiesByBook = updated.stream()
+                .collect(Collectors.groupingBy(CartItem::getBookId, Collectors.counting()));
+        for (Integer bookId : addedBookIds) {
+            Book book = books.get(bookId);
+            if (book == null) {
+                throw new CartException("Book not found: " + bookId);
+            }
+            if (copiesByBook.get(bookId) > book.getStockQuantity()) {
+                throw new CartException("Not enough books available for book " + bookId + ". Available: " +
+                        (book.getStockQuantity() - copiesByBook.get(bookId) + heldDelta.get(bookId)) +
+                        ", total: " + book.getStockQuantity());
+            }
+        }
+
+        for (Map.Entry<Integer, Integer> entry : heldDelta.entrySet()) {
+            if (entry.getValue() > 0) {
+                holdStock(cartId, books.get(entry.getKey()), entry.getValue());
+            } else {
+                stockHoldStore.release(entry.getKey(), cartId, -entry.getValue());
+            }
+        }
+
+        List<CartItem> saved = cartStore.replaceItems(client.getUserId(), current, updated);
+        if (saved.isEmpty()) {
+            stockHoldStore.releaseCart(cartId);
+        }
+        return toCartDto(saved);
+    }
+
+    private void applyOperation(List<CartItem> items, Integer cartId, CartOperationRequest operation) {
+        if (operation.getAction() == null) {
+            throw new CartException("Cart operation action is required");
+        }
+        switch (operation.getAction()) {
+            case ADD -> {
+                if (operation.getBookId() == null || operation.getType() == null) {
+                    throw new CartException("Book and item type are required to add an item");
+                }
+                if (operation.getType() == ItemType.RENT) {
+                    validateRentalDays(operation.getRentalDays());
+                }
+                CartItem item = new CartItem();
+                item.setCartId(cartId);
+                item.setBookId(operation.getBookId());
+                item.setType(operation.getType());
+                item.setRentalDays(operation.getRentalDays());
+                item.setAddedAt(LocalDateTime.now());
+                items.add(item);
+            }
+            case REMOVE -> items.remove(findBatchItem(items, operation.getCartItemId()));
+            case UPDATE_RENTAL_DAYS -> {
+                CartItem item = findBatchItem(items, operation.getCartItemId());
+                if (item.getType() != ItemType.RENT) {
+                    throw new CartException("Rental days can only be changed for rented items");
+                }
+                validateRentalDays(operation.getRentalDays());
+                item.setRentalDays(operation.getRentalDays());
+            }
+        }
+    }
+
+    private CartItem findBatchItem(List<CartItem> items, Integer cartItemId) {
+        return items.stream()
+                .filter(item -> item.getCartItemId() != null && item.getCartItemId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> new CartException("Cart item not found: " + cartItemId));
+    }
+
+    private void validateRentalDays(Integer rentalDays) {
+        if (rentalDays == null || rentalDays <= 0) {
+            throw new CartException("Rental days must be positive");
+        }
+    }
+
+    private CartItem copyOf(CartItem item) {
+        CartItem copy = new CartItem();
+        copy.setCartItemId(item.getCartItemId());
+        copy.setCartId(item.getCartId());
+        copy.setBookId(item.getBookId());
+        copy.setType(item.getType());
+        copy.setRentalDays(item.getRentalDays());
+        copy.setAddedAt(item.getAddedAt());
+        return copy;
+    }
+
+    public Optional<Integer> findCartId(Client client) {
+        return cartStore.findCartId(client.getUserId());
+    }
+
+    public CartDto getCartContents(Client client) {
+        return toCartDto(cartStore.findItems(client.getUserId()));
+    }
+
+    private CartDto toCartDto(List<CartItem> cartItems) {
+        if (cartItems.isEmpty()) {
             return new CartDto(new ArrayList<>());
         }
 
-        Cart cart = cartOpt.get();
-        List<CartItem> cartItems = cartItemRepository.findByCartId(cart.getCartId());
+        Map<Integer, Long> copiesByBook = cartItems.stream()
+                .collect(Collectors.groupingBy(CartItem::getBookId, Collectors.counting()));
+
+        Map<Integer, Book> books = bookRepository.findAllById(copiesByBook.keySet()).stream()
+                .collect(Collectors.toMap(Book::getBookId, book -> book));
+        Map<Integer, List<String>> imageUrls = new HashMap<>();
+        for (Object[] row : bookImageRepository.findImageUrlsByBookIds(books.keySet())) {
+            imageUrls.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Map<Integer, Boolean> availability = checkAvailability(cartItems.get(0).getCartId(), books, copiesByBook);
 
         List<CartItemDto> cartItemDTOs = cartItems.stream()
-                .map(this::convertToCartItemDTO)
-                .filter(dto -> dto != null)
+                .filter(cartItem -> books.containsKey(cartItem.getBookId()))
+                .map(cartItem -> convertToCartItemDTO(cartItem, books.get(cartItem.getBookId()),
+                        imageUrls.getOrDefault(cartItem.getBookId(), new ArrayList<>()),
+                        availability.get(cartItem.getBookId())))
                 .collect(Collectors.toList());
 
         return new CartDto(cartItemDTOs);
     }
 
-    private CartItemDto convertToCartItemDTO(CartItem cartItem) {
+    private CartItemDto convertToCartItemDTO(CartItem cartItem, Book book, List<String> imageUrls, boolean available) {
         CartItemDto dto = new CartItemDto();
         dto.setCartItemId(cartItem.getCartItemId());
         dto.setBookId(cartItem.getBookId());
         dto.setType(cartItem.getType());
         dto.setRentalDays(cartItem.getRentalDays());
         dto.setAddedAt(cartItem.getAddedAt());
-        Optional<Book> bookOpt = bookRepository.findById(cartItem.getBookId());
-        if (bookOpt.isEmpty()) {
-            return null;
-        }
-        Book book = bookOpt.get();
         dto.setTitle(book.getTitle());
         dto.setStockQuantity(book.getStockQuantity());
-        if (book.getAuthorId() != null) {
-            Optional<Author> authorOpt = authorRepository.findById(book.getAuthorId());
-            if (authorOpt.isPresent()) {
-                dto.setAuthorName(authorOpt.get().getFullName());
-            }
-        }
-        List<String> imageUrls = book.getImages().stream()
-                .map(BookImage::getImageUrl)
-                .collect(Collectors.toList());
+        dto.setAuthorName(referenceDataCache.getAuthorName(book.getAuthorId()));
         dto.setImageUrls(imageUrls);
         calculatePrices(dto, book, cartItem);
-        boolean available = isCartItemStillAvailable(cartItem);
         dto.setAvailable(available);
         return dto;
     }
@@ -185,44 +284,68 @@ public class CartService {
         dto.setPrice(finalPrice);
     }
 
-    public Long countItems(String token) {
-        Client client = authService.getClientFromToken(token);
-        Optional<Cart> optionalCart = cartRepository.findByUserId(client.getUserId());
-        return optionalCart.map(cart -> cartItemRepository.countByCartId(cart.getCartId())).orElse(0L);
+    public Long countItems(Client client) {
+        return cartStore.countItems(client.getUserId());
     }
 
-    public List<CartItem> getAllItems(String token) {
-        Client client = authService.getClientFromToken(token);
-        Optional<Cart> optionalCart = cartRepository.findByUserId(client.getUserId());
-        return optionalCart.map(cart -> cartItemRepository.findByCartId(cart.getCartId())).orElse(List.of());
+    public List<CartItem> getAllItems(Client client) {
+        return cartStore.findItems(client.getUserId());
     }
 
-    public boolean isBookAvailable(String token, Integer bookId) {
+    public boolean isBookAvailable(Client client, Integer bookId) {
         try {
-            Client client = authService.getClientFromToken(token);
-            Cart cart = getOrCreateCart(client.getUserId());
-            Book book = bookRepository.findById(bookId).orElse(null);
+            Integer cartId = cartStore.findCartId(client.getUserId()).orElse(0);
+            try {
+                StockHoldStore.Availability availability = stockHoldStore.availability(bookId, cartId);
+                return availability.availableForCart() > availability.heldByCart();
+            } catch (DataAccessException e) {
+                log.warn("Stock holds unavailable, checking book {} in database: {}", bookId, e.getMessage());
+                Book book = bookRepository.findById(bookId).orElse(null);
 
-            if (book == null) return false;
+                if (book == null) return false;
 
-            validateBookAvailability(cart.getCartId(), bookId, book);
-            return true;
+                validateBookAvailability(cartStore.findItems(client.getUserId()), bookId, book);
+                return true;
+            }
         } catch (CartException e) {
             return false;
         }
     }
 
-    private boolean isCartItemStillAvailable(CartItem cartItem) {
-        Book book = bookRepository.findById(cartItem.getBookId()).get();
-
-        long itemsInCart = cartItemRepository.countByCartIdAndBookId(
-                cartItem.getCartId(), cartItem.getBookId());
+    private Map<Integer, Boolean> checkAvailability(Integer cartId, Map<Integer, Book> books,
+                                                    Map<Integer, Long> copiesByBook) {
+        Map<Integer, Boolean> available = new HashMap<>();
+        try {
+            Map<Integer, StockHoldStore.Availability> holds = stockHoldStore.availability(books.keySet(), cartId);
+            for (Book book : books.values()) {
+                available.put(book.getBookId(),
+                        copiesByBook.get(book.getBookId()) <= holds.get(book.getBookId()).availableForCart());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Stock holds unavailable, checking cart books in database: {}", e.getMessage());
+            for (Book book : books.values()) {
+                available.put(book.getBookId(), copiesByBook.get(book.getBookId()) <= book.getStockQuantity());
+            }
+        }
+        return available;
+    }
 
-        return itemsInCart <= book.getStockQuantity();
+    private void holdStock(Integer cartId, Book book, int count) {
+        StockHoldStore.Hold hold;
+        try {
+            hold = stockHoldStore.hold(book.getBookId(), cartId, count);
+        } catch (DataAccessException e) {
+            log.warn("Stock holds unavailable, adding book {} without a hold: {}", book.getBookId(), e.getMessage());
+            return;
+        }
+        if (!hold.granted()) {
+            throw new CartException("Not enough books available. Available: " +
+                    Math.max(hold.available(), 0) + ", total: " + hold.stock());
+        }
     }
 
-    private void validateBookAvailability(Integer cartId, Integer bookId, Book book) {
-        long itemsInCart = cartItemRepository.countByCartIdAndBookId(cartId, bookId);
+    private void validateBookAvailability(List<CartItem> cartItems, Integer bookId, Book book) {
+        long itemsInCart = cartItems.stream().filter(item -> item.getBookId().equals(bookId)).count();
         if (itemsInCart >= book.getStockQuantity()) {
             throw new CartException("Not enough books available. Available: " +
                     (book.getStockQuantity() - itemsInCart) + ", total: " + book.getStockQuantity());
@@ -0,0 +1,93 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.cache.ReferenceDataCache;
+import com.example.bookstore.dto.BookDto;
+import com.example.bookstore.model.*;
+import com.example.bookstore.repository.*;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+public class CatalogPageAssembler {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final BookGenreRepository bookGenreRepository;
+    private final BookCategoryRepository bookCategoryRepository;
+    private final BookImageRepository bookImageRepository;
+
+    public CatalogPageAssembler(ReferenceDataCache referenceDataCache,
+                                BookGenreRepository bookGenreRepository,
+                                BookCategoryRepository bookCategoryRepository,
+                                BookImageRepository bookImageRepository) {
+        this.referenceDataCache = referenceDataCache;
+        this.bookGenreRepository = bookGenreRepository;
+        this.bookCategoryRepository = bookCategoryRepository;
+        this.bookImageRepository = bookImageRepository;
+    }
+
+    public List<BookDto> toBookDtos(List<Book> books) {
+        if (books.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> bookIds = books.stream()
+                .map(Book::getBookId)
+                .collect(Collectors.toList());
+
+        Map<Integer, List<String>> imageUrls = loadImageUrls(bookIds);
+        Map<Integer, List<String>> genres = loadGenreNames(bookIds);
+        Map<Integer, List<String>> categories = loadCategoryNames(bookIds);
+
+        List<BookDto> result = new ArrayList<>(books.size());
+        for (Book book : books) {
+            BookDto dto = new BookDto();
+            dto.setBookId(book.getBookId());
+            dto.setTitle(book.getTitle());
+            dto.setAuthorName(referenceDataCache.getAuthorName(book.getAuthorId()));
+            dto.setDescription(book.getDescription());
+            dto.setPublicationDate(book.getPublicationDate());
+            dto.setPurchasePrice(book.getPurchasePrice());
+            dto.setRentalPrice(book.getRentalPrice());
+            dto.setStockQuantity(book.getStockQuantity());
+            dto.setStatus(book.getStatus());
+            dto.setImageUrls(imageUrls.getOrDefault(book.getBookId(), new ArrayList<>()));
+            dto.setGenres(genres.getOrDefault(book.getBookId(), new ArrayList<>()));
+            dto.setCategories(categories.getOrDefault(book.getBookId(), new ArrayList<>()));
+            dto.setDiscountPercent(book.getDiscountPercent());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private Map<Integer, List<String>> loadImageUrls(List<Integer> bookIds) {
+        Map<Integer, List<String>> urls = new HashMap<>();
+        for (Object[] row : bookImageRepository.findImageUrlsByBookIds(bookIds)) {
+            urls.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return urls;
+    }
+
+    private Map<Integer, List<String>> loadGenreNames(List<Integer> bookIds) {
+        Map<Integer, List<String>> result = new HashMap<>();
+        for (BookGenre link : bookGenreRepository.findByBookIdIn(bookIds)) {
+            String name = referenceDataCache.getGenreName(link.getGenreId());
+            if (name != null) {
+                result.computeIfAbsent(link.getBookId(), id -> new ArrayList<>()).add(name);
+            }
+        }
+        return result;
+    }
+
+    private Map<Integer, List<String>> loadCategoryNames(List<Integer> bookIds) {
+        Map<Integer, List<String>> result = new HashMap<>();
+        for (BookCategory link : bookCategoryRepository.findByBookIdIn(bookIds)) {
+            String name = referenceDataCache.getCategoryName(link.getCategoryId());
+            if (name != null) {
+                result.computeIfAbsent(link.getBookId(), id -> new ArrayList<>()).add(name);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.model.Book;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+public final class CatalogValidators {
+
+    private CatalogValidators() {
+    }
+
+    public static String etag(List<Book> books, Object... extra) {
+        StringBuilder source = new StringBuilder();
+        for (Book book : books) {
+            source.append(book.getBookId()).append('@').append(book.getUpdatedAt()).append(';');
+        }
+        for (Object part : extra) {
+            source.append('|').append(Objects.toString(part));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static long lastModified(LocalDateTime... timestamps) {
+        long latest = -1;
+        for (LocalDateTime timestamp : timestamps) {
+            if (timestamp != null) {
+                latest = Math.max(latest, timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        return latest;
+    }
+}
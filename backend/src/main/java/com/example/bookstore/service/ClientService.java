@@ -1,14 +1,18 @@
 package com.example.bookstore.service;
 
-import com.example.bookstore.config.PasswordUtils;
+import com.example.bookstore.cache.ClientPrincipalCache;
+import com.example.bookstore.cache.RateLimiter;
 import com.example.bookstore.dto.ClientProfileDto;
 import com.example.bookstore.dto.LoginResponseDto;
 import com.example.bookstore.dto.UserBasicInfoDto;
 import com.example.bookstore.exception.NotFoundException;
+import com.example.bookstore.exception.TooManyAttemptsException;
 import com.example.bookstore.exception.UnauthorizedException;
 import com.example.bookstore.model.Client;
 import com.example.bookstore.repository.ClientRepository;
 import com.example.bookstore.security.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
@@ -21,23 +25,36 @@ import java.util.Optional;
 @Service
 public class ClientService {
 
+    private static final Logger log = LoggerFactory.getLogger(ClientService.class);
+
     private final ClientRepository clientRepository;
     private final JwtUtils jwtUtils;
     private final AuthService authService;
-
-    public ClientService(ClientRepository clientRepository, JwtUtils jwtUtils, AuthService authService) {
+    private final ClientPrincipalCache clientPrincipalCache;
+    private final PasswordHashingService passwordHashingService;
+    private final RateLimiter rateLimiter;
+
+    public ClientService(ClientRepository clientRepository, JwtUtils jwtUtils, AuthService authService,
+                         ClientPrincipalCache clientPrincipalCache,
+                         PasswordHashingService passwordHashingService,
+                         RateLimiter rateLimiter) {
         this.clientRepository = clientRepository;
         this.jwtUtils = jwtUtils;
         this.authService = authService;
+        this.clientPrincipalCache = clientPrincipalCache;
+        this.passwordHashingService = passwordHashingService;
+        this.rateLimiter = rateLimiter;
     }
 
     public LoginResponseDto authenticateUser(Client loginClient) {
         String email = loginClient.getEmail();
         String password = loginClient.getPassword();
+        checkLoginRate(email);
         Optional<Client> clientOptional = clientRepository.findByEmail(email);
 
-        if (clientOptional.isPresent() && PasswordUtils.checkPassword(password, clientOptional.get().getPassword())) {
+        if (clientOptional.isPresent() && passwordHashingService.matches(password, clientOptional.get().getPassword())) {
             Client client = clientOptional.get();
+            rehashIfNeeded(client, password);
             String token = jwtUtils.generateToken(email);
 
             UserBasicInfoDto userInfo = new UserBasicInfoDto(
@@ -62,7 +79,7 @@ public class ClientService {
                 response.put("message", "Invalid or expired token.");
                 return response;
             }
-            authService.invalidateToken(token);
+            authService.invalidateToken(jwtToken);
             response.put("message", "Logout successful");
             return response;
         } catch (Exception e) {
@@ -80,19 +97,20 @@ public class ClientService {
         }
 
         try {
-            newClient.setPassword(PasswordUtils.hashPassword(newClient.getPassword()));
+            newClient.setPassword(passwordHashingService.hash(newClient.getPassword()));
             newClient.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
             clientRepository.save(newClient);
             response.put("message", "User registered successfully!");
             return response;
+        } catch (TooManyAttemptsException e) {
+            throw e;
         } catch (Exception e) {
             response.put("message", "Registration failed due to an error.");
             return response;
         }
     }
 
-    public ClientProfileDto getCurrentUserInfo(String token) {
-        Client client = authService.getClientFromToken(token);
+    public ClientProfileDto getCurrentUserInfo(Client client) {
         ClientProfileDto dto = new ClientProfileDto();
         dto.setEmail(client.getEmail());
         dto.setFirstName(client.getFirstName());
@@ -102,8 +120,7 @@ public class ClientService {
         return dto;
     }
 
-    public ClientProfileDto updateUser(String token, ClientProfileDto updateDto) {
-        Client client = authService.getClientFromToken(token);
+    public ClientProfileDto updateUser(Client client, ClientProfileDto updateDto) {
         if (!client.getEmail().equals(updateDto.getEmail())) {
             Optional<Client> existingClient = clientRepository.findByEmail(updateDto.getEmail());
             if (existingClient.isPresent()) {
@@ -115,6 +132,7 @@ public class ClientService {
         client.setEmail(updateDto.getEmail());
         client.setContactPhone(updateDto.getContactPhone());
         Client updatedClient = clientRepository.save(client);
+        clientPrincipalCache.evict(updatedClient.getUserId());
         ClientProfileDto responseDto = new ClientProfileDto();
         responseDto.setEmail(updatedClient.getEmail());
         responseDto.setFirstName(updatedClient.getFirstName());
@@ -124,14 +142,14 @@ public class ClientService {
         return responseDto;
     }
 
-    public void changePassword(String token, String currentPassword, String newPassword) {
-        Client client = authService.getClientFromToken(token);
-        if (!PasswordUtils.checkPassword(currentPassword, client.getPassword())) {
+    public void changePassword(Client client, String currentPassword, String newPassword) {
+        if (!passwordHashingService.matches(currentPassword, client.getPassword())) {
             throw new UnauthorizedException("Current password is incorrect.");
         }
-        String hashedNewPassword = PasswordUtils.hashPassword(newPassword);
+        String hashedNewPassword = passwordHashingService.hash(newPassword);
         client.setPassword(hashedNewPassword);
         clientRepository.save(client);
+        clientPrincipalCache.evict(client.getUserId());
     }
 
 
@@ -146,7 +164,32 @@ public class ClientService {
     public boolean isAuthenticated(Client loginClient) {
         String email = loginClient.getEmail();
         String password = loginClient.getPassword();
+        checkLoginRate(email);
         Optional<Client> clientOptional = clientRepository.findByEmail(email);
-        return clientOptional.map(client -> PasswordUtils.checkPassword(password, client.getPassword())).orElse(false);
+        return clientOptional.map(client -> passwordHashingService.matches(password, client.getPassword())).orElse(false);
+    }
+
+    private void checkLoginRate(String email) {
+        if (email == null || email.isBlank()) {
+            return;
+        }
+        RateLimiter.Decision decision = rateLimiter.tryAcquire("client-login-user", email.trim().toLowerCase());
+        if (!decision.allowed()) {
+            throw new TooManyAttemptsException("Too many login attempts. Please try again in "
+                    + decision.retryAfterSeconds() + " seconds");
+        }
+    }
+
+    private void rehashIfNeeded(Client client, String password) {
+        if (!passwordHashingService.needsRehash(client.getPassword())) {
+            return;
+        }
+        try {
+            client.setPassword(passwordHashingService.hash(password));
+            clientRepository.save(client);
+            clientPrincipalCache.evict(client.getUserId());
+        } catch (TooManyAttemptsException e) {
+            log.debug("Skipping password rehash for client {}: {}", client.getUserId(), e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.repository.InventoryLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+@Service
+public class InventoryCompactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryCompactionService.class);
+
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final Duration settleTime;
+
+    public InventoryCompactionService(InventoryLedgerRepository inventoryLedgerRepository,
+                                      @Value("${inventory.ledger.settle-time:1m}") Duration settleTime) {
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.settleTime = settleTime;
+    }
+
+    @Scheduled(cron = "${inventory.ledger.compaction-cron:0 */15 * * * *}")
+    @Transactional
+    public void compactInventoryLedger() {
+        log.info("Starting scheduled task: compactInventoryLedger");
+
+        int compacted = inventoryLedgerRepository.compactSnapshots((int) settleTime.toSeconds());
+        List<Integer> drifted = inventoryLedgerRepository.findDriftedBooks();
+        if (!drifted.isEmpty()) {
+            log.warn("Inventory ledger disagrees with stock_quantity for books {}", drifted);
+        }
+
+        log.info("Scheduled task completed: {} snapshots compacted, {} books drifted", compacted, drifted.size());
+    }
+}
@@ -15,16 +15,12 @@ public class NotificationService {
             List.of(OrderStatus.READY_FOR_PICKUP, OrderStatus.READY_FOR_PICKUP_UNPAID);
 
     private final NotificationRepository notificationRepository;
-    private final AuthService authService;
 
-    public NotificationService(NotificationRepository notificationRepository,
-                               AuthService authService) {
+    public NotificationService(NotificationRepository notificationRepository) {
         this.notificationRepository = notificationRepository;
-        this.authService = authService;
     }
 
-    public NotificationAlertDto getAlerts(String token) {
-        Client client = authService.getClientFromToken(token);
+    public NotificationAlertDto getAlerts(Client client) {
         int userId = client.getUserId();
 
         boolean hasReadyForPickup =
@@ -1,5 +1,7 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.BestsellerRanking;
+import com.example.bookstore.enums.InventoryReason;
 import com.example.bookstore.enums.ItemStatus;
 import com.example.bookstore.enums.OrderStatus;
 import com.example.bookstore.model.OrderItem;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -25,13 +28,16 @@ public class OrderAutoStatusService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final BookService bookService;
+    private final BestsellerRanking bestsellerRanking;
 
     public OrderAutoStatusService(OrderRepository orderRepository,
                                   OrderItemRepository orderItemRepository,
-                                  BookService bookService) {
+                                  BookService bookService,
+                                  BestsellerRanking bestsellerRanking) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.bookService = bookService;
+        this.bestsellerRanking = bestsellerRanking;
     }
 
     @Scheduled(fixedDelay = 600000)
@@ -67,16 +73,21 @@ public class OrderAutoStatusService {
                 : OrderStatus.CANCELLED_BY_DEADLINE_UNPAID;
         order.setStatus(newStatus);
         orderRepository.save(order);
-        returnBooksToStockAndCancelItems(order.getOrderId());
+        returnBooksToStockAndCancelItems(order);
         log.info("Order {} cancelled with status: {}", order.getOrderId(), newStatus);
     }
 
-    private void returnBooksToStockAndCancelItems(Integer orderId) {
+    private void returnBooksToStockAndCancelItems(Orders order) {
+        Integer orderId = order.getOrderId();
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+        List<OrderItem> cancelled = new ArrayList<>();
 
         for (OrderItem item : orderItems) {
+            if (item.getItemStatus() != ItemStatus.CANCELLED) {
+                cancelled.add(item);
+            }
             if (item.getItemStatus() == ItemStatus.PENDING) {
-                bookService.incrementBookStock(item.getBookId(), 1);
+                bookService.returnToStock(item, InventoryReason.ORDER_CANCELLED);
                 log.debug("Returned book {} to stock for order {}", item.getBookId(), orderId);
             }
 
@@ -84,6 +95,7 @@ public class OrderAutoStatusService {
         }
 
         orderItemRepository.saveAll(orderItems);
+        bestsellerRanking.recordCancellation(order.getCreatedAt(), cancelled);
     }
 
     @Scheduled(fixedDelay = 600000)
@@ -1,63 +1,86 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.BestsellerRanking;
+import com.example.bookstore.cache.CatalogFacetIndex;
+import com.example.bookstore.cache.StockHoldStore;
+import com.example.bookstore.cache.StorefrontFeedCache;
 import com.example.bookstore.dto.*;
+import com.example.bookstore.enums.InventoryReason;
 import com.example.bookstore.enums.ItemStatus;
 import com.example.bookstore.enums.ItemType;
 import com.example.bookstore.enums.OrderStatus;
 import com.example.bookstore.enums.Role;
 import com.example.bookstore.exception.OrderException;
 import com.example.bookstore.model.*;
-import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.security.StaffPrincipal;
+import com.example.bookstore.repository.InventoryLedgerRepository;
 import com.example.bookstore.repository.OrderItemRepository;
 import com.example.bookstore.repository.OrderRepository;
 import com.example.bookstore.repository.PickUpPointRepository;
+import com.example.bookstore.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartService cartService;
-    private final AuthService authService;
-    private final BookRepository bookRepository;
     private final PickUpPointRepository pickUpPointRepository;
     private final PickUpPointService pickUpPointService;
     private final BookService bookService;
+    private final StorefrontFeedCache storefrontFeedCache;
+    private final BestsellerRanking bestsellerRanking;
+    private final StockReservationRepository stockReservationRepository;
+    private final StockHoldStore stockHoldStore;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final InventoryLedgerRepository inventoryLedgerRepository;
 
     public OrderService(OrderRepository orderRepository,
                         OrderItemRepository orderItemRepository,
                         CartService cartService,
-                        AuthService authService,
-                        BookRepository bookRepository,
                         PickUpPointRepository pickUpPointRepository,
                         PickUpPointService pickUpPointService,
-                        BookService bookService) {
+                        BookService bookService,
+                        StorefrontFeedCache storefrontFeedCache,
+                        BestsellerRanking bestsellerRanking,
+                        StockReservationRepository stockReservationRepository,
+                        StockHoldStore stockHoldStore,
+                        CatalogFacetIndex catalogFacetIndex,
+                        InventoryLedgerRepository inventoryLedgerRepository) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.cartService = cartService;
-        this.authService = authService;
-        this.bookRepository = bookRepository;
         this.pickUpPointRepository = pickUpPointRepository;
         this.pickUpPointService = pickUpPointService;
         this.bookService = bookService;
+        this.storefrontFeedCache = storefrontFeedCache;
+        this.bestsellerRanking = bestsellerRanking;
+        this.stockReservationRepository = stockReservationRepository;
+        this.stockHoldStore = stockHoldStore;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
     }
 
     @Transactional
-    public Orders createOrderFromCart(String token, Integer pickupPointId) {
-        Client client = authService.getClientFromToken(token);
-        CartDto cartDto = cartService.getCartContents(token);
+    public Orders createOrderFromCart(Client client, Integer pickupPointId) {
+        CartDto cartDto = cartService.getCartContents(client);
         List<CartItemDto> cartItems = cartDto.getItems();
 
         validateCartNotEmpty(cartItems);
-        validateAndUpdateStock(cartItems);
+        validateAndUpdateStock(client, cartItems);
 
         pickUpPointRepository.findById(pickupPointId)
                 .filter(point -> Boolean.TRUE.equals(point.getIsActive()))
@@ -68,14 +91,15 @@ public class OrderService {
         Orders order = createOrder(client, totalPrice, pickupPointId);
         order = orderRepository.save(order);
 
-        createOrderItems(order.getOrderId(), cartItems);
-        cartService.clearCart(token);
+        List<OrderItem> orderItems = createOrderItems(order.getOrderId(), cartItems);
+        inventoryLedgerRepository.recordOrderItems(orderItems, -1, InventoryReason.CHECKOUT);
+        bestsellerRanking.recordOrder(order.getCreatedAt(), orderItems);
+        cartService.clearCart(client);
 
         return order;
     }
 
-    public Orders getOrderById(Integer orderId, String token) {
-        Client client = authService.getClientFromToken(token);
+    public Orders getOrderById(Integer orderId, Client client) {
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderException("Order not found: " + orderId));
 
@@ -101,17 +125,47 @@ public class OrderService {
         }
     }
 
-    private void validateAndUpdateStock(List<CartItemDto> cartItems) {
-        for (CartItemDto item : cartItems) {
-            Book book = bookRepository.findById(item.getBookId())
-                    .orElseThrow(() -> new OrderException("Book not found: " + item.getBookId()));
-
-            if (book.getStockQuantity() <= 0) {
-                throw new OrderException("Book out of stock: " + item.getBookId());
+    private void validateAndUpdateStock(Client client, List<CartItemDto> cartItems) {
+        Map<Integer, Integer> requested = cartItems.stream()
+                .collect(Collectors.groupingBy(CartItemDto::getBookId, TreeMap::new, Collectors.summingInt(item -> 1)));
+
+        Map<Integer, Integer> heldElsewhere = heldByOtherCarts(client, requested.keySet());
+        Map<Integer, String> reserved = stockReservationRepository.reserve(requested, heldElsewhere);
+        if (reserved.size() != requested.size()) {
+            Map<Integer, Integer> stock = stockReservationRepository.findStock(requested.keySet());
+            List<String> problems = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : requested.entrySet()) {
+                Integer available = stock.get(entry.getKey());
+                if (available == null) {
+                    problems.add("Book not found: " + entry.getKey());
+                } else if (available - heldElsewhere.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+                    problems.add("Book out of stock: " + entry.getKey());
+                }
+            }
+            if (problems.isEmpty()) {
+                problems.add("Stock changed during checkout, please try again");
+            }
+            throw new OrderException(String.join("; ", problems));
+        }
+        for (Map.Entry<Integer, String> entry : reserved.entrySet()) {
+            stockHoldStore.evictStock(entry.getKey());
+            if (BookAutoStatusService.STATUS_NOT_AVAILABLE.equals(entry.getValue())) {
+                catalogFacetIndex.updateStatus(entry.getKey(), entry.getValue());
             }
+        }
+        storefrontFeedCache.invalidateBooks(reserved.keySet());
+    }
 
-            book.setStockQuantity(book.getStockQuantity() - 1);
-            bookRepository.save(book);
+    private Map<Integer, Integer> heldByOtherCarts(Client client, Collection<Integer> bookIds) {
+        Integer cartId = cartService.findCartId(client).orElse(0);
+        try {
+            Map<Integer, Integer> held = new HashMap<>();
+            stockHoldStore.availability(bookIds, cartId)
+                    .forEach((bookId, availability) -> held.put(bookId, availability.heldByOthers()));
+            return held;
+        } catch (DataAccessException e) {
+            log.warn("Stock holds unavailable, checking out against raw stock: {}", e.getMessage());
+            return Map.of();
         }
     }
 
@@ -131,7 +185,8 @@ public class OrderService {
         return order;
     }
 
-    private void createOrderItems(Integer orderId, List<CartItemDto> cartItems) {
+    private List<OrderItem> createOrderItems(Integer orderId, List<CartItemDto> cartItems) {
+        List<OrderItem> orderItems = new ArrayList<>();
         for (CartItemDto cartItem : cartItems) {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrderId(orderId);
@@ -141,12 +196,12 @@ public class OrderService {
             orderItem.setRentalStartAt(null);
             orderItem.setRentalEndAt(null);
             orderItem.setItemStatus(ItemStatus.PENDING);
-            orderItemRepository.save(orderItem);
+            orderItems.add(orderItemRepository.save(orderItem));
         }
+        return orderItems;
     }
 
-    public Page<OrderSummaryDto> getUserOrders(String token, Pageable pageable) {
-        Client client = authService.getClientFromToken(token);
+    public Page<OrderSummaryDto> getUserOrders(Client client, Pageable pageable) {
         Page<Object[]> ordersPage = orderRepository.findByUserIdWithPickUpPoint(client.getUserId(), pageable);
         List<OrderSummaryDto> orderSummaries = new ArrayList<>();
         for (Object[] result : ordersPage.getContent()) {
@@ -170,8 +225,7 @@ public class OrderService {
         return new PageImpl<>(orderSummaries, pageable, ordersPage.getTotalElements());
     }
 
-    public OrderDetailDto getOrderDetails(Integer orderId, String token) {
-        Client client = authService.getClientFromToken(token);
+    public OrderDetailDto getOrderDetails(Integer orderId, Client client) {
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderException("Order not found: " + orderId));
 
@@ -180,7 +234,7 @@ public class OrderService {
         return assembleOrderDetailDto(order);
     }
 
-    public OrderDetailDto getOrderDetailsForAdmin(Integer orderId, Admin admin) {
+    public OrderDetailDto getOrderDetailsForAdmin(Integer orderId, StaffPrincipal admin) {
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderException("Order not found: " + orderId));
 
@@ -234,7 +288,7 @@ public class OrderService {
             String sortDirection,
             int page,
             int size,
-            Admin admin) {
+            StaffPrincipal admin) {
 
         Sort sort = sortDirection.equalsIgnoreCase("asc")
                 ? Sort.by("createdAt").ascending()
@@ -246,10 +300,10 @@ public class OrderService {
 
         Integer effectiveOrderId = orderId;
         String effectiveEmail = email;
-        if (admin.getRole() == Role.WORKER) {
+        if (admin.role() == Role.WORKER) {
             if (orderId != null) {
                 Orders order = orderRepository.findById(orderId).orElse(null);
-                if (order == null || !order.getPickUpPoint().equals(admin.getPickUpPointId())) {
+                if (order == null || !order.getPickUpPoint().equals(admin.pickupPointId())) {
                     return Page.empty(pageable);
                 }
             }
@@ -277,22 +331,22 @@ public class OrderService {
         });
     }
 
-    private Integer determineEffectivePickupPointId(Admin admin, Integer requestedPickupPointId) {
-        if (admin.getRole() == Role.ADMIN) {
+    private Integer determineEffectivePickupPointId(StaffPrincipal admin, Integer requestedPickupPointId) {
+        if (admin.role() == Role.ADMIN) {
             return requestedPickupPointId;
-        } else if (admin.getRole() == Role.WORKER) {
-            return admin.getPickUpPointId();
+        } else if (admin.role() == Role.WORKER) {
+            return admin.pickupPointId();
         }
         return requestedPickupPointId;
     }
 
-    private void validateAdminAccess(Orders order, Admin admin) {
-        if (admin.getRole() == Role.WORKER) {
-            if (admin.getPickUpPointId() == null) {
+    private void validateAdminAccess(Orders order, StaffPrincipal admin) {
+        if (admin.role() == Role.WORKER) {
+            if (admin.pickupPointId() == null) {
                 throw new OrderException("Worker must be assigned to a pickup point");
             }
 
-            if (!order.getPickUpPoint().equals(admin.getPickUpPointId())) {
+            if (!order.getPickUpPoint().equals(admin.pickupPointId())) {
                 throw new OrderException("Access denied: order belongs to different pickup point");
             }
         }
@@ -351,7 +405,7 @@ public class OrderService {
     }
 
     @Transactional
-    public Orders updateOrderStatus(Integer orderId, OrderStatus newStatus, Admin admin) {
+    public Orders updateOrderStatus(Integer orderId, OrderStatus newStatus, StaffPrincipal admin) {
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderException("Order not found: " + orderId));
 
@@ -441,16 +495,22 @@ public class OrderService {
     @Transactional
     public void returnBooksToStock(Integer orderId) {
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+        List<OrderItem> cancelled = orderItems.stream()
+                .filter(item -> item.getItemStatus() != ItemStatus.CANCELLED)
+                .collect(Collectors.toList());
 
-        for (OrderItem item : orderItems) {
-            bookService.incrementBookStock(item.getBookId(), 1);
+        for (OrderItem item : cancelled) {
+            bookService.returnToStock(item, InventoryReason.ORDER_CANCELLED);
             item.setItemStatus(ItemStatus.CANCELLED);
             orderItemRepository.save(item);
         }
+
+        orderRepository.findById(orderId)
+                .ifPresent(order -> bestsellerRanking.recordCancellation(order.getCreatedAt(), cancelled));
     }
 
     @Transactional
-    public OrderItem updateOrderItemStatus(Integer orderItemId, ItemStatus newStatus, Admin admin) {
+    public OrderItem updateOrderItemStatus(Integer orderItemId, ItemStatus newStatus, StaffPrincipal admin) {
         OrderItem orderItem = orderItemRepository.findById(orderItemId)
                 .orElseThrow(() -> new OrderException("Order item not found: " + orderItemId));
         Orders order = orderRepository.findById(orderItem.getOrderId())
@@ -466,7 +526,7 @@ public class OrderService {
             if (orderItem.getItemStatus() != ItemStatus.RENTED && orderItem.getItemStatus() != ItemStatus.OVERDUE) {
                 throw new OrderException("Item must be RENTED or OVERDUE before marking as RETURNED");
             }
-            bookService.incrementBookStock(orderItem.getBookId(), 1);
+            bookService.returnToStock(orderItem, InventoryReason.RENTAL_RETURNED);
             orderItem.setRentalEndAt(LocalDateTime.now());
         }
 
@@ -481,8 +541,7 @@ public class OrderService {
     }
 
     @Transactional
-    public Orders cancelOrderByUser(Integer orderId, String token) {
-        Client client = authService.getClientFromToken(token);
+    public Orders cancelOrderByUser(Integer orderId, Client client) {
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderException("Order not found: " + orderId));
 
@@ -521,8 +580,7 @@ public class OrderService {
     }
 
     @Transactional
-    public Orders processRefund(Integer orderId, String token) {
-        Client client = authService.getClientFromToken(token);
+    public Orders processRefund(Integer orderId, Client client) {
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderException("Order not found: " + orderId));
 
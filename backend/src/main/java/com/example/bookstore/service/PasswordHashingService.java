@@ -0,0 +1,109 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.config.PasswordUtils;
+import com.example.bookstore.exception.TooManyAttemptsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final String OVERLOADED_MESSAGE = "Too many sign-in requests. Please try again shortly";
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int cost;
+    private final Duration waitTimeout;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${auth.password.cost:10}") int cost,
+                                  @Value("${auth.password.pool-size:4}") int poolSize,
+                                  @Value("${auth.password.queue-capacity:32}") int queueCapacity,
+                                  @Value("${auth.password.wait-timeout:5s}") Duration waitTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.cost = cost;
+        this.waitTimeout = waitTimeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("auth.password.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public String hash(String password) {
+        return run("hash", () -> PasswordUtils.hashPassword(password, cost));
+    }
+
+    public boolean matches(String password, String storedHash) {
+        return run("verify", () -> PasswordUtils.checkPassword(password, storedHash));
+    }
+
+    public boolean needsRehash(String storedHash) {
+        try {
+            return PasswordUtils.costOf(storedHash) != cost;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(String operation, Callable<T> task) {
+        Timer.Sample queued = Timer.start(meterRegistry);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queued.stop(meterRegistry.timer("auth.password.wait", "operation", operation));
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    return task.call();
+                } finally {
+                    sample.stop(meterRegistry.timer("auth.password.latency",
+                            "operation", operation, "cost", String.valueOf(cost)));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.password.rejected", "operation", operation, "reason", "queue_full").increment();
+            log.warn("Password {} rejected: hashing queue is full", operation);
+            throw new TooManyAttemptsException(OVERLOADED_MESSAGE, e);
+        }
+
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("auth.password.rejected", "operation", operation, "reason", "timeout").increment();
+            throw new TooManyAttemptsException(OVERLOADED_MESSAGE, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password " + operation, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password " + operation + " failed", e.getCause());
+        }
+    }
+}
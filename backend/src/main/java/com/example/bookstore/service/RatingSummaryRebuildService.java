@@ -0,0 +1,33 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.repository.BookRatingSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class RatingSummaryRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingSummaryRebuildService.class);
+
+    private final BookRatingSummaryRepository bookRatingSummaryRepository;
+
+    public RatingSummaryRebuildService(BookRatingSummaryRepository bookRatingSummaryRepository) {
+        this.bookRatingSummaryRepository = bookRatingSummaryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void rebuildRatingSummaries() {
+        log.info("Starting scheduled task: rebuildRatingSummaries");
+
+        int rebuilt = bookRatingSummaryRepository.rebuildAll();
+
+        log.info("Scheduled task completed: recomputed rating summary for {} books", rebuilt);
+    }
+}
@@ -17,15 +17,12 @@ import java.util.List;
 public class RentalService {
 
     private final OrderItemRepository orderItemRepository;
-    private final AuthService authService;
 
-    public RentalService(OrderItemRepository orderItemRepository, AuthService authService) {
+    public RentalService(OrderItemRepository orderItemRepository) {
         this.orderItemRepository = orderItemRepository;
-        this.authService = authService;
     }
 
-    public Page<RentalItemDto> getUserRentals(String token, Pageable pageable) {
-        Client client = authService.getClientFromToken(token);
+    public Page<RentalItemDto> getUserRentals(Client client, Pageable pageable) {
         int userId = client.getUserId();
 
         Page<Object[]> rawItems = orderItemRepository.findUserRentalItems(userId, pageable);
@@ -8,6 +8,7 @@ import com.example.bookstore.exception.NotFoundException;
 import com.example.bookstore.exception.ValidationException;
 import com.example.bookstore.model.Client;
 import com.example.bookstore.model.Review;
+import com.example.bookstore.repository.BookRatingSummaryRepository;
 import com.example.bookstore.repository.ClientRepository;
 import com.example.bookstore.repository.ReviewRepository;
 import com.example.bookstore.security.JwtUtils;
@@ -28,15 +29,15 @@ import java.util.Map;
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
-    private final AuthService authService;
+    private final BookRatingSummaryRepository bookRatingSummaryRepository;
 
-    public ReviewService(ReviewRepository reviewRepository, AuthService authService) {
+    public ReviewService(ReviewRepository reviewRepository,
+                         BookRatingSummaryRepository bookRatingSummaryRepository) {
         this.reviewRepository = reviewRepository;
-        this.authService = authService;
+        this.bookRatingSummaryRepository = bookRatingSummaryRepository;
     }
 
-    public List<SingleUserReviewsDto> getReviewsByUserId(String token) {
-        Client client = authService.getClientFromToken(token);
+    public List<SingleUserReviewsDto> getReviewsByUserId(Client client) {
         return reviewRepository.findAllReviewsByUserId(client.getUserId());
     }
 
@@ -65,8 +66,7 @@ public class ReviewService {
         };
     }
 
-    public Map<String, Object> getReviewsByUserIdPaginated(String token, int page, int size) {
-        Client client = authService.getClientFromToken(token);
+    public Map<String, Object> getReviewsByUserIdPaginated(Client client, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<SingleUserReviewsDto> reviewPage = reviewRepository.findAllReviewsByUserIdPaginated(client.getUserId(), pageable);
         return Map.of(
@@ -80,9 +80,8 @@ public class ReviewService {
     }
 
     @Transactional
-    public Review createReview(CreateReviewDto createReviewDto, String token) {
+    public Review createReview(CreateReviewDto createReviewDto, Client client) {
         validateCreateReviewDto(createReviewDto);
-        Client client = authService.getClientFromToken(token);
         if (!reviewRepository.hasUserPurchasedBook(client.getUserId(), createReviewDto.getBookId())) {
             throw new ValidationException("You can only review books you have purchased or rented");
         }
@@ -96,11 +95,12 @@ public class ReviewService {
         review.setComment(createReviewDto.getComment() != null ?
                 createReviewDto.getComment().trim() : null);
         review.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        bookRatingSummaryRepository.addRating(saved.getBookId(), saved.getRating());
+        return saved;
     }
 
-    public Map<String, Object> canUserReviewBook(Integer bookId, String token) {
-        Client client = authService.getClientFromToken(token);
+    public Map<String, Object> canUserReviewBook(Integer bookId, Client client) {
         boolean hasPurchased = reviewRepository.hasUserPurchasedBook(client.getUserId(), bookId);
         boolean hasReviewed = reviewRepository.existsByUserIdAndBookId(client.getUserId(), bookId);
         Review existingReview = null;
@@ -152,27 +152,28 @@ public class ReviewService {
     }
 
     @Transactional
-    public Review updateReview(Integer reviewId, UpdateReviewDto updateReviewDto, String token) {
+    public Review updateReview(Integer reviewId, UpdateReviewDto updateReviewDto, Client client) {
         validateUpdateReviewDto(updateReviewDto);
-        Client client = authService.getClientFromToken(token);
         Review review = reviewRepository.findByReviewIdAndUserId(reviewId, client.getUserId())
                 .orElseThrow(() -> new NotFoundException("Review not found or you don't have permission to edit it"));
+        int previousRating = review.getRating();
         review.setRating(updateReviewDto.getRating());
         review.setComment(updateReviewDto.getComment());
         review.setCreatedAt(Timestamp.valueOf(LocalDateTime.now()));
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        bookRatingSummaryRepository.changeRating(saved.getBookId(), previousRating, saved.getRating());
+        return saved;
     }
 
     @Transactional
-    public void deleteReview(Integer reviewId, String token) {
-        Client client = authService.getClientFromToken(token);
-        if (!reviewRepository.findByReviewIdAndUserId(reviewId, client.getUserId()).isPresent()) {
-            throw new NotFoundException("Review not found or you don't have permission to delete it");
-        }
+    public void deleteReview(Integer reviewId, Client client) {
+        Review review = reviewRepository.findByReviewIdAndUserId(reviewId, client.getUserId())
+                .orElseThrow(() -> new NotFoundException("Review not found or you don't have permission to delete it"));
         int deletedCount = reviewRepository.deleteByReviewIdAndUserId(reviewId, client.getUserId());
         if (deletedCount == 0) {
             throw new NotFoundException("Review not found or could not be deleted");
         }
+        bookRatingSummaryRepository.removeRating(review.getBookId(), review.getRating());
     }
 
     private void validateUpdateReviewDto(UpdateReviewDto dto) {
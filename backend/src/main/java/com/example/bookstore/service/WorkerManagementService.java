@@ -1,6 +1,6 @@
 package com.example.bookstore.service;
 
-import com.example.bookstore.config.PasswordUtils;
+import com.example.bookstore.cache.StaffPrincipalCache;
 import com.example.bookstore.dto.CreateWorkerRequest;
 import com.example.bookstore.dto.PickUpPointDto;
 import com.example.bookstore.dto.UpdateWorkerRequest;
@@ -26,13 +26,19 @@ public class WorkerManagementService {
     private final AdminRepository adminRepository;
     private final PickUpPointRepository pickUpPointRepository;
     private final StringRedisTemplate redisTemplate;
+    private final PasswordHashingService passwordHashingService;
+    private final StaffPrincipalCache staffPrincipalCache;
 
     public WorkerManagementService(AdminRepository adminRepository,
                                    PickUpPointRepository pickUpPointRepository,
-                                   StringRedisTemplate redisTemplate) {
+                                   StringRedisTemplate redisTemplate,
+                                   PasswordHashingService passwordHashingService,
+                                   StaffPrincipalCache staffPrincipalCache) {
         this.adminRepository = adminRepository;
         this.pickUpPointRepository = pickUpPointRepository;
         this.redisTemplate = redisTemplate;
+        this.passwordHashingService = passwordHashingService;
+        this.staffPrincipalCache = staffPrincipalCache;
     }
 
     public WorkerDto createWorker(CreateWorkerRequest request) {
@@ -47,7 +53,7 @@ public class WorkerManagementService {
 
         Admin worker = new Admin();
         worker.setUsername(request.getUsername());
-        worker.setPassword(PasswordUtils.hashPassword(request.getPassword()));
+        worker.setPassword(passwordHashingService.hash(request.getPassword()));
         worker.setFullName(request.getFullName());
         worker.setEmail(request.getEmail());
         worker.setRole(Role.WORKER);
@@ -64,6 +70,7 @@ public class WorkerManagementService {
         if (worker.getRole() != Role.WORKER) {
             throw new ValidationException("Can only update workers, not admins");
         }
+        staffPrincipalCache.evict(worker.getUsername());
 
         if (request.getUsername() != null && !request.getUsername().equals(worker.getUsername())) {
             if (adminRepository.findByUsername(request.getUsername()).isPresent()) {
@@ -87,7 +94,7 @@ public class WorkerManagementService {
         }
 
         if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
-            worker.setPassword(PasswordUtils.hashPassword(request.getPassword()));
+            worker.setPassword(passwordHashingService.hash(request.getPassword()));
         }
 
         Admin updatedWorker = adminRepository.save(worker);
@@ -103,6 +110,7 @@ public class WorkerManagementService {
         }
 
         invalidateWorkerSession(worker.getUsername());
+        staffPrincipalCache.evict(worker.getUsername());
 
         adminRepository.delete(worker);
     }
@@ -0,0 +1,108 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.enums.ItemType;
+import com.example.bookstore.exception.CartException;
+import com.example.bookstore.model.CartItem;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.ClientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "cart.store=redis")
+@ActiveProfiles("test")
+class RedisCartStoreTest {
+
+    @Autowired
+    private RedisCartStore cartStore;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer userId;
+    private Integer bookId;
+
+    @BeforeEach
+    void setUp() {
+        Client client = new Client();
+        client.setEmail("cart-conflict-" + UUID.randomUUID() + "@example.com");
+        client.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        userId = clientRepository.save(client).getUserId();
+        bookId = bookRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getBookId();
+
+        CartItem item = new CartItem();
+        item.setBookId(bookId);
+        item.setType(ItemType.RENT);
+        item.setRentalDays(7);
+        item.setAddedAt(LocalDateTime.now());
+        cartStore.addItem(userId, item, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete("cart:" + userId);
+        redisTemplate.opsForSet().remove("cart:dirty", userId.toString());
+        jdbcTemplate.update("DELETE FROM cart WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM client WHERE client_id = ?", userId);
+    }
+
+    @Test
+    void replaceItems_itemEditedConcurrently_rejectsStaleBatch() {
+        List<CartItem> seenByFirst = cartStore.lockItems(userId);
+        List<CartItem> seenBySecond = cartStore.lockItems(userId);
+
+        cartStore.replaceItems(userId, seenBySecond, List.of(withRentalDays(seenBySecond.get(0), 14)));
+
+        assertThatThrownBy(() -> cartStore.replaceItems(userId, seenByFirst,
+                List.of(withRentalDays(seenByFirst.get(0), 21))))
+                .isInstanceOf(CartException.class)
+                .hasMessageContaining("modified concurrently");
+        assertThat(cartStore.findItems(userId))
+                .singleElement()
+                .extracting(CartItem::getRentalDays)
+                .isEqualTo(14);
+    }
+
+    @Test
+    void replaceItems_unchangedCart_appliesBatch() {
+        List<CartItem> current = cartStore.lockItems(userId);
+
+        cartStore.replaceItems(userId, current, List.of(withRentalDays(current.get(0), 14)));
+
+        assertThat(cartStore.findItems(userId))
+                .singleElement()
+                .extracting(CartItem::getRentalDays)
+                .isEqualTo(14);
+    }
+
+    private CartItem withRentalDays(CartItem source, int rentalDays) {
+        CartItem copy = new CartItem();
+        copy.setCartItemId(source.getCartItemId());
+        copy.setCartId(source.getCartId());
+        copy.setBookId(source.getBookId());
+        copy.setType(source.getType());
+        copy.setRentalDays(rentalDays);
+        copy.setAddedAt(source.getAddedAt());
+        return copy;
+    }
+}
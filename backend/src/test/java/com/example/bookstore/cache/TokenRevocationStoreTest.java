@@ -0,0 +1,160 @@
+package com.example.bookstore.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationStoreTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJhQGIuYyJ9.signature";
+    private static final String OTHER_TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJkQGUuZiJ9.signature";
+
+    private final LocalRedis redis = new LocalRedis();
+
+    @Test
+    void revoke_onOneNode_rejectsTokenOnEveryNode() {
+        Node first = redis.node();
+        Node second = redis.node();
+
+        first.store().revoke(TOKEN, Instant.now().plus(Duration.ofHours(1)));
+
+        assertThat(first.store().isRevoked(TOKEN)).isTrue();
+        assertThat(second.store().isRevoked(TOKEN)).isTrue();
+        assertThat(second.store().isRevoked(OTHER_TOKEN)).isFalse();
+    }
+
+    @Test
+    void isRevoked_tokenNotInFilter_skipsRedis() {
+        Node first = redis.node();
+        Node second = redis.node();
+        first.store().revoke(TOKEN, Instant.now().plus(Duration.ofHours(1)));
+
+        for (int i = 0; i < 100; i++) {
+            second.store().isRevoked(OTHER_TOKEN + i);
+        }
+
+        verify(second.template(), atMost(5)).hasKey(anyString());
+    }
+
+    @Test
+    void rebuild_nodeThatMissedBroadcast_loadsRevocationsFromRedis() {
+        Node first = redis.node();
+        first.store().revoke(TOKEN, Instant.now().plus(Duration.ofHours(1)));
+        Node late = redis.node();
+
+        assertThat(late.store().isRevoked(TOKEN)).isFalse();
+
+        late.store().rebuild();
+
+        assertThat(late.store().isRevoked(TOKEN)).isTrue();
+    }
+
+    @Test
+    void revocation_expiresWithToken() {
+        Node first = redis.node();
+        Node second = redis.node();
+        first.store().revoke(TOKEN, Instant.now().plus(Duration.ofMinutes(5)));
+
+        redis.advance(Duration.ofMinutes(6));
+
+        assertThat(second.store().isRevoked(TOKEN)).isFalse();
+        second.store().rebuild();
+        assertThat(redis.keys).isEmpty();
+        assertThat(second.store().isRevoked(TOKEN)).isFalse();
+    }
+
+    @Test
+    void revoke_expiredToken_storesNothing() {
+        Node first = redis.node();
+
+        first.store().revoke(TOKEN, Instant.now().minus(Duration.ofMinutes(1)));
+
+        assertThat(redis.keys).isEmpty();
+        assertThat(first.store().isRevoked(TOKEN)).isFalse();
+    }
+
+    @Test
+    void isRevoked_redisUnavailable_rejectsCandidateToken() {
+        Node first = redis.node();
+        first.store().revoke(TOKEN, Instant.now().plus(Duration.ofHours(1)));
+        when(first.template().hasKey(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThat(first.store().isRevoked(TOKEN)).isTrue();
+    }
+
+    private record Node(TokenRevocationStore store, StringRedisTemplate template) {}
+
+    private static class LocalRedis {
+        private final Map<String, Long> keys = new ConcurrentHashMap<>();
+        private final List<TokenRevocationStore> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+
+        @SuppressWarnings("unchecked")
+        Node node() {
+            StringRedisTemplate template = mock(StringRedisTemplate.class);
+            ValueOperations<String, String> values = mock(ValueOperations.class);
+            when(template.opsForValue()).thenReturn(values);
+            doAnswer(invocation -> {
+                Duration ttl = invocation.getArgument(2);
+                keys.put(invocation.getArgument(0), clock.get() + ttl.toMillis());
+                return null;
+            }).when(values).set(anyString(), anyString(), any(Duration.class));
+            when(template.hasKey(anyString())).thenAnswer(invocation -> live(invocation.getArgument(0)));
+            when(template.convertAndSend(anyString(), any())).thenAnswer(invocation -> {
+                byte[] channel = invocation.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8);
+                byte[] body = invocation.getArgument(1).toString().getBytes(StandardCharsets.UTF_8);
+                subscribers.forEach(subscriber -> subscriber.onMessage(new DefaultMessage(channel, body), null));
+                return (long) subscribers.size();
+            });
+            when(template.scan(any(ScanOptions.class))).thenAnswer(invocation -> {
+                String prefix = invocation.getArgument(0, ScanOptions.class).getPattern().replace("*", "");
+                Iterator<String> matching = keys.keySet().stream()
+                        .filter(key -> key.startsWith(prefix) && live(key))
+                        .toList()
+                        .iterator();
+                Cursor<String> cursor = mock(Cursor.class);
+                when(cursor.hasNext()).thenAnswer(call -> matching.hasNext());
+                when(cursor.next()).thenAnswer(call -> matching.next());
+                return cursor;
+            });
+
+            TokenRevocationStore store = new TokenRevocationStore(template, new SimpleMeterRegistry(),
+                    mock(RedisMessageListenerContainer.class), 1000, 0.01);
+            subscribers.add(store);
+            return new Node(store, template);
+        }
+
+        void advance(Duration duration) {
+            clock.addAndGet(duration.toMillis());
+        }
+
+        private boolean live(String key) {
+            Long expiresAt = keys.get(key);
+            if (expiresAt != null && expiresAt <= clock.get()) {
+                keys.remove(key);
+                return false;
+            }
+            return expiresAt != null;
+        }
+    }
+}
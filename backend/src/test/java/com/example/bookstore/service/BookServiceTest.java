@@ -1,6 +1,11 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.CatalogFacetIndex;
+import com.example.bookstore.cache.ReferenceDataCache;
+import com.example.bookstore.cache.StockHoldStore;
+import com.example.bookstore.cache.StorefrontFeedCache;
 import com.example.bookstore.dto.BookDto;
+import com.example.bookstore.enums.InventoryReason;
 import com.example.bookstore.exception.NotFoundException;
 import com.example.bookstore.exception.ValidationException;
 import com.example.bookstore.dto.UpdateBookDto;
@@ -33,6 +38,18 @@ class BookServiceTest {
     private BookGenreRepository bookGenreRepository;
     @Mock
     private BookCategoryRepository bookCategoryRepository;
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Mock
+    private StorefrontFeedCache storefrontFeedCache;
+    @Mock
+    private StockHoldStore stockHoldStore;
+    @Mock
+    private InventoryLedgerRepository inventoryLedgerRepository;
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+    @Mock
+    private CatalogFacetIndex catalogFacetIndex;
 
     @InjectMocks
     private BookService bookService;
@@ -47,7 +64,7 @@ class BookServiceTest {
         book.setImages(List.of());
 
         when(bookRepository.findById(1)).thenReturn(Optional.of(book));
-        when(authorRepository.findById(any())).thenReturn(Optional.empty());
+        when(referenceDataCache.getAuthorName(any())).thenReturn(null);
         when(bookGenreRepository.findByBookId(1)).thenReturn(List.of());
         when(bookCategoryRepository.findByBookId(1)).thenReturn(List.of());
 
@@ -68,23 +85,31 @@ class BookServiceTest {
 
 
     @Test
-    void incrementBookStock_increasesStockCorrectly() {
-        Book book = new Book();
-        book.setBookId(1);
-        book.setStockQuantity(5);
-
-        when(bookRepository.findById(1)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any())).thenReturn(book);
+    void incrementBookStock_addsStockAtomically() {
+        when(stockReservationRepository.addStock(1, 3))
+                .thenReturn(Optional.of(new StockReservationRepository.StockChange(8, "AVAILABLE", "AVAILABLE")));
 
         bookService.incrementBookStock(1, 3);
 
-        assertThat(book.getStockQuantity()).isEqualTo(8);
-        verify(bookRepository).save(book);
+        verify(bookRepository, never()).save(any());
+        verify(inventoryLedgerRepository).record(1, 3, InventoryReason.RESTOCK, null, null);
+        verify(storefrontFeedCache).invalidateBooks(List.of(1));
+        verify(catalogFacetIndex, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void incrementBookStock_restockSoldOutBook_updatesStatusFacet() {
+        when(stockReservationRepository.addStock(1, 2))
+                .thenReturn(Optional.of(new StockReservationRepository.StockChange(2, "AVAILABLE", "NOT_AVAILABLE")));
+
+        bookService.incrementBookStock(1, 2);
+
+        verify(catalogFacetIndex).updateStatus(1, "AVAILABLE");
     }
 
     @Test
     void incrementBookStock_bookNotFound_throwsNotFoundException() {
-        when(bookRepository.findById(999)).thenReturn(Optional.empty());
+        when(stockReservationRepository.addStock(999, 1)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> bookService.incrementBookStock(999, 1))
                 .isInstanceOf(NotFoundException.class)
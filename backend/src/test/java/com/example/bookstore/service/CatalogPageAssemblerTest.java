@@ -0,0 +1,126 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.cache.ReferenceDataCache;
+import com.example.bookstore.dto.BookDto;
+import com.example.bookstore.model.*;
+import com.example.bookstore.repository.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogPageAssemblerTest {
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Mock
+    private BookGenreRepository bookGenreRepository;
+    @Mock
+    private BookCategoryRepository bookCategoryRepository;
+    @Mock
+    private BookImageRepository bookImageRepository;
+
+    @InjectMocks
+    private CatalogPageAssembler assembler;
+
+    @Test
+    void toBookDtos_fullPage_usesFixedNumberOfQueries() {
+        List<Book> books = books(9);
+        stubRepositories(books);
+
+        List<BookDto> dtos = assembler.toBookDtos(books);
+
+        assertThat(dtos).hasSize(9);
+        assertThat(countQueries()).isEqualTo(3);
+    }
+
+    @Test
+    void toBookDtos_queryCountDoesNotGrowWithPageSize() {
+        List<Book> books = books(50);
+        stubRepositories(books);
+
+        assembler.toBookDtos(books);
+
+        assertThat(countQueries()).isEqualTo(3);
+    }
+
+    @Test
+    void toBookDtos_mapsNamesAndImagesPerBook() {
+        List<Book> books = books(2);
+        stubRepositories(books);
+
+        List<BookDto> dtos = assembler.toBookDtos(books);
+
+        BookDto first = dtos.get(0);
+        assertThat(first.getBookId()).isEqualTo(1);
+        assertThat(first.getAuthorName()).isEqualTo("Author 101");
+        assertThat(first.getGenres()).containsExactly("Genre 2");
+        assertThat(first.getCategories()).containsExactly("Category 2");
+        assertThat(first.getImageUrls()).containsExactly("img-1.jpg");
+        assertThat(dtos.get(1).getAuthorName()).isEqualTo("Author 102");
+    }
+
+    @Test
+    void toBookDtos_emptyPage_runsNoQueries() {
+        List<BookDto> dtos = assembler.toBookDtos(List.of());
+
+        assertThat(dtos).isEmpty();
+        assertThat(countQueries()).isZero();
+    }
+
+    private List<Book> books(int count) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Book book = new Book();
+            book.setBookId(i);
+            book.setTitle("Book " + i);
+            book.setAuthorId(100 + i);
+            books.add(book);
+        }
+        return books;
+    }
+
+    private void stubRepositories(List<Book> books) {
+        List<BookGenre> bookGenres = new ArrayList<>();
+        List<BookCategory> bookCategories = new ArrayList<>();
+        List<Object[]> images = new ArrayList<>();
+        for (Book book : books) {
+            BookGenre bookGenre = new BookGenre();
+            bookGenre.setBookId(book.getBookId());
+            bookGenre.setGenreId(book.getBookId() % 3 + 1);
+            bookGenres.add(bookGenre);
+
+            BookCategory bookCategory = new BookCategory();
+            bookCategory.setBookId(book.getBookId());
+            bookCategory.setCategoryId(book.getBookId() % 2 + 1);
+            bookCategories.add(bookCategory);
+
+            images.add(new Object[]{book.getBookId(), "img-" + book.getBookId() + ".jpg"});
+        }
+
+        when(referenceDataCache.getAuthorName(any())).thenAnswer(inv -> "Author " + inv.getArgument(0));
+        when(referenceDataCache.getGenreName(any())).thenAnswer(inv -> "Genre " + inv.getArgument(0));
+        when(referenceDataCache.getCategoryName(any())).thenAnswer(inv -> "Category " + inv.getArgument(0));
+        when(bookGenreRepository.findByBookIdIn(anyCollection())).thenReturn(bookGenres);
+        when(bookCategoryRepository.findByBookIdIn(anyCollection())).thenReturn(bookCategories);
+        when(bookImageRepository.findImageUrlsByBookIds(anyCollection())).thenReturn(images);
+    }
+
+    private long countQueries() {
+        return Stream.of(bookGenreRepository, bookCategoryRepository, bookImageRepository)
+                .mapToLong(repository -> mockingDetails(repository).getInvocations().size())
+                .sum();
+    }
+}
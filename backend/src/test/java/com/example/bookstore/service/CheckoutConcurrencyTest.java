@@ -0,0 +1,147 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.cache.StockHoldStore;
+import com.example.bookstore.dto.UpdateBookDto;
+import com.example.bookstore.enums.ItemType;
+import com.example.bookstore.exception.OrderException;
+import com.example.bookstore.model.Client;
+import com.example.bookstore.model.PickUpPoint;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.ClientRepository;
+import com.example.bookstore.repository.PickUpPointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutConcurrencyTest {
+
+    private static final int BUYERS = 24;
+    private static final int STOCK = 5;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private StockHoldStore stockHoldStore;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private PickUpPointRepository pickUpPointRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String emailPrefix = "checkout-race-" + UUID.randomUUID() + "-";
+    private final List<Client> buyers = new ArrayList<>();
+    private Integer bookId;
+    private Integer pickupPointId;
+
+    @BeforeEach
+    void setUp() {
+        UpdateBookDto book = new UpdateBookDto();
+        book.setTitle("Checkout race " + emailPrefix);
+        book.setAuthorId(authorRepository.findAll().get(0).getAuthorId());
+        book.setPurchasePrice(10.0);
+        book.setRentalPrice(2.0);
+        book.setStockQuantity(BUYERS);
+        book.setPublicationDate(LocalDateTime.now());
+        book.setDiscountPercent(BigDecimal.ZERO);
+        bookId = bookService.createBook(book).getBookId();
+
+        pickupPointId = pickUpPointRepository.findAll().stream()
+                .filter(point -> Boolean.TRUE.equals(point.getIsActive()))
+                .map(PickUpPoint::getPickupPointId)
+                .findFirst()
+                .orElseThrow();
+
+        for (int i = 0; i < BUYERS; i++) {
+            Client client = new Client();
+            client.setEmail(emailPrefix + i + "@example.com");
+            client.setFirstName("Race");
+            client.setLastName("Buyer " + i);
+            client.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            client = clientRepository.save(client);
+            cartService.addItem(client, bookId, ItemType.BUY, null);
+            buyers.add(client);
+        }
+
+        // Let the cart holds lapse so every buyer races for the same few copies at checkout.
+        for (Client buyer : buyers) {
+            cartService.findCartId(buyer).ifPresent(stockHoldStore::releaseCart);
+        }
+        jdbcTemplate.update("UPDATE book SET stock_quantity = ? WHERE book_id = ?", STOCK, bookId);
+        stockHoldStore.evictStock(bookId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Client client : buyers) {
+            cartService.clearCart(client);
+        }
+        String clients = "SELECT client_id FROM client WHERE email LIKE ?";
+        jdbcTemplate.update("DELETE FROM order_item WHERE book_id = ?", bookId);
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id IN (" + clients + ")", emailPrefix + "%");
+        jdbcTemplate.update("DELETE FROM cart WHERE user_id IN (" + clients + ")", emailPrefix + "%");
+        jdbcTemplate.update("DELETE FROM client WHERE email LIKE ?", emailPrefix + "%");
+        jdbcTemplate.update("DELETE FROM book WHERE book_id = ?", bookId);
+    }
+
+    @Test
+    void createOrderFromCart_concurrentBuyersOfLowStockBook_neverOversell() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger ordered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Client buyer : buyers) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrderFromCart(buyer, pickupPointId);
+                        ordered.incrementAndGet();
+                    } catch (OrderException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ordered.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(BUYERS - STOCK);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM book WHERE book_id = ?", Integer.class, bookId)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM book WHERE book_id = ?", String.class, bookId)).isEqualTo("NOT_AVAILABLE");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM order_item WHERE book_id = ?", Integer.class, bookId)).isEqualTo(STOCK);
+    }
+}
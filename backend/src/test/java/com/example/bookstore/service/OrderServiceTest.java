@@ -1,5 +1,9 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.cache.BestsellerRanking;
+import com.example.bookstore.cache.CatalogFacetIndex;
+import com.example.bookstore.cache.StockHoldStore;
+import com.example.bookstore.cache.StorefrontFeedCache;
 import com.example.bookstore.dto.CartDto;
 import com.example.bookstore.dto.CartItemDto;
 import com.example.bookstore.enums.ItemType;
@@ -7,10 +11,13 @@ import com.example.bookstore.enums.OrderStatus;
 import com.example.bookstore.exception.OrderException;
 import com.example.bookstore.model.Client;
 import com.example.bookstore.model.Orders;
+import com.example.bookstore.model.PickUpPoint;
 import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.InventoryLedgerRepository;
 import com.example.bookstore.repository.OrderItemRepository;
 import com.example.bookstore.repository.OrderRepository;
 import com.example.bookstore.repository.PickUpPointRepository;
+import com.example.bookstore.repository.StockReservationRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -19,7 +26,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,10 +42,23 @@ class OrderServiceTest {
     @Mock
     private CartService cartService;
     @Mock
-    private AuthService authService;
-    @Mock
     private BookRepository bookRepository;
-
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+    @Mock
+    private StorefrontFeedCache storefrontFeedCache;
+    @Mock
+    private StockHoldStore stockHoldStore;
+    @Mock
+    private CatalogFacetIndex catalogFacetIndex;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private PickUpPointRepository pickUpPointRepository;
+    @Mock
+    private InventoryLedgerRepository inventoryLedgerRepository;
+    @Mock
+    private BestsellerRanking bestsellerRanking;
 
     @InjectMocks
     private OrderService orderService;
@@ -100,17 +122,84 @@ class OrderServiceTest {
 
     @Test
     void createOrderFromCart_emptyCart_throwsOrderException() {
-        String token = "valid-token";
         Integer pickupPointId = 1;
         Client mockClient = new Client();
         mockClient.setUserId(100);
         CartDto emptyCart = new CartDto(List.of());
-        when(authService.getClientFromToken(token)).thenReturn(mockClient);
-        when(cartService.getCartContents(token)).thenReturn(emptyCart);
-        assertThatThrownBy(() -> orderService.createOrderFromCart(token, pickupPointId))
+        when(cartService.getCartContents(mockClient)).thenReturn(emptyCart);
+        assertThatThrownBy(() -> orderService.createOrderFromCart(mockClient, pickupPointId))
                 .isInstanceOf(OrderException.class)
                 .hasMessageContaining("cart is empty");
         verify(orderRepository, never()).save(any());
         verify(bookRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createOrderFromCart_copiesOfSameBook_reservedInOneStatement() {
+        Client client = new Client();
+        client.setUserId(100);
+        PickUpPoint point = new PickUpPoint();
+        point.setIsActive(true);
+        when(cartService.getCartContents(client))
+                .thenReturn(new CartDto(List.of(cartItem(2), cartItem(1), cartItem(2), cartItem(2))));
+        when(stockReservationRepository.reserve(anyMap(), anyMap())).thenReturn(Map.of(1, "AVAILABLE", 2, "NOT_AVAILABLE"));
+        when(pickUpPointRepository.findById(1)).thenReturn(Optional.of(point));
+        when(orderRepository.save(any())).thenAnswer(inv -> {
+            Orders order = inv.getArgument(0);
+            order.setOrderId(7);
+            return order;
+        });
+        when(orderItemRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        orderService.createOrderFromCart(client, 1);
+
+        verify(stockReservationRepository, times(1)).reserve(Map.of(1, 1, 2, 3), Map.of());
+        verify(catalogFacetIndex).updateStatus(2, "NOT_AVAILABLE");
+        verify(catalogFacetIndex, never()).updateStatus(eq(1), any());
+        verify(storefrontFeedCache).invalidateBooks(Set.of(1, 2));
+        verify(cartService).clearCart(client);
+    }
+
+    @Test
+    void createOrderFromCart_partialShortage_reportsShortBooksAndKeepsCaches() {
+        Client client = new Client();
+        client.setUserId(100);
+        when(cartService.getCartContents(client))
+                .thenReturn(new CartDto(List.of(cartItem(1), cartItem(2), cartItem(2), cartItem(3))));
+        when(stockReservationRepository.reserve(anyMap(), anyMap())).thenReturn(Map.of());
+        when(stockReservationRepository.findStock(anyCollection())).thenReturn(Map.of(1, 5, 2, 1));
+
+        assertThatThrownBy(() -> orderService.createOrderFromCart(client, 1))
+                .isInstanceOf(OrderException.class)
+                .hasMessageContaining("Book out of stock: 2")
+                .hasMessageContaining("Book not found: 3")
+                .hasMessageNotContaining("Book out of stock: 1");
+        verify(storefrontFeedCache, never()).invalidateBooks(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void createOrderFromCart_copiesHeldByOtherCarts_notAvailableToBuyer() {
+        Client client = new Client();
+        client.setUserId(100);
+        when(cartService.getCartContents(client)).thenReturn(new CartDto(List.of(cartItem(1))));
+        when(cartService.findCartId(client)).thenReturn(Optional.of(9));
+        when(stockHoldStore.availability(Set.of(1), 9))
+                .thenReturn(Map.of(1, new StockHoldStore.Availability(2, 2, 0)));
+        when(stockReservationRepository.reserve(Map.of(1, 1), Map.of(1, 2))).thenReturn(Map.of());
+        when(stockReservationRepository.findStock(anyCollection())).thenReturn(Map.of(1, 2));
+
+        assertThatThrownBy(() -> orderService.createOrderFromCart(client, 1))
+                .isInstanceOf(OrderException.class)
+                .hasMessageContaining("Book out of stock: 1");
+        verify(orderRepository, never()).save(any());
+    }
+
+    private CartItemDto cartItem(Integer bookId) {
+        CartItemDto item = new CartItemDto();
+        item.setBookId(bookId);
+        item.setType(ItemType.BUY);
+        item.setPrice(BigDecimal.TEN);
+        return item;
+    }
+}